@@ -0,0 +1,84 @@
+package ch.thoenluk;
+
+import ch.thoenluk.ut.AsciiInput;
+import ch.thoenluk.ut.ParsingCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH harness for every ChristmasSaver found by the ChallengeRunner. Where the runner takes one cold sample per part,
+ * this warms up, forks and measures until there are error bars to look at.
+ * <p>
+ * Lives in its own source root so src stays free of the JMH dependency. To run it, put jmh-core on the classpath,
+ * jmh-generator-annprocess on the annotation processor path, compile both roots with --enable-preview, and run main
+ * from the project directory, same as the ChallengeRunner, so the challenge folders can be found. The forks start with
+ * the Vector API module, so add the vector source root to the classpath for the vectorised point cloud.
+ * Any arguments are taken as the challenge folder names to benchmark. No arguments means all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+public class ChristmasSaverBenchmark<I> {
+    @Param({}) // Filled in by main from the discovered ChristmasSavers, or by hand with -p challenge=...
+    public String challenge;
+
+    private ChristmasSaver<I> christmasSaver;
+    private InputParser inputParser;
+    private AsciiInput input;
+    private InputSnapshot<I> snapshot;
+    // One for the whole trial, like the runner keeps one per challenge, or every cached parse would go uncached.
+    private ParsingCache parsingCache;
+
+    public static void main(final String[] args) throws RunnerException {
+        final String[] challenges = args.length > 0 ? args : findChallengeFolderNames();
+        final Options options = new OptionsBuilder()
+                .include(ChristmasSaverBenchmark.class.getSimpleName())
+                .param("challenge", challenges)
+                .build();
+        new Runner(options).run();
+    }
+
+    private static String[] findChallengeFolderNames() {
+        return ChallengeRunner.findChristmasSavers().stream()
+                .map(ChristmasSaverRegistry.Entry::challengeFolderName)
+                .toArray(String[]::new);
+    }
+
+    @Setup(Level.Trial)
+    public void findChristmasSaver() {
+        final Class<? extends ChristmasSaver<I>> christmasSaverClass = ChallengeRunner.findChristmasSavers().stream()
+                .filter(candidate -> candidate.challengeFolderName().equals(challenge))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("No ChristmasSaver lives in a folder called %s.", challenge)))
+                .<I>load();
+        christmasSaver = ChallengeRunner.instantiateChristmasSaver(christmasSaverClass);
+        inputParser = christmasSaverClass.getAnnotation(InputFormat.class).value();
+        input = ChallengeRunner.findActualInput(ChallengeRunner.findChallengeFolder(christmasSaverClass));
+        parsingCache = new ParsingCache();
+        // One snapshot for all invocations. It hands every invocation a fresh view, streams included.
+        snapshot = parsingCache.within(() -> inputParser.snapshot(input));
+    }
+
+    @Benchmark
+    public Object parse() {
+        return parsingCache.within(() -> inputParser.parse(input));
+    }
+
+    @Benchmark
+    public String saveChristmas() {
+        return parsingCache.within(() -> christmasSaver.saveChristmas(snapshot.get()));
+    }
+
+    @Benchmark
+    public String saveChristmasAgain() {
+        return parsingCache.within(() -> christmasSaver.saveChristmasAgain(snapshot.get()));
+    }
+}
@@ -0,0 +1,147 @@
+package ch.thoenluk.ut;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Micro benchmarks for the utilities every ChristmasSaver leans on. If one of these gets slower, all of them do.
+ * <p>
+ * Forks with the Vector API module, so the point cloud's batch distances take their vectorised path, provided the
+ * vector source root was compiled and is on the classpath. Without it they quietly take the plain loop instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+public class UtBenchmark {
+    private static final long SEED = 25_12_2025L;
+
+    @Param({"1000"})
+    public int size;
+
+    private String[] numbers;
+    // Lives for the whole trial, like a challenge's cache lives for all its parts, so after the first pass it's all hits.
+    private ParsingCache parsingCache;
+    private List<Position> grid;
+    private List<ThreeDPosition> points;
+    private ThreeDPointCloud cloud;
+    private long[] distances;
+    private final long[] neighbourBuffer = new long[Position.NeighbourDirection.OMNIDIRECTIONAL.size()];
+    private int index;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UtBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void createInputs() {
+        final Random random = new Random(SEED);
+        numbers = IntStream.range(0, size)
+                .mapToObj(_ -> Integer.toString(random.nextInt(100_000)))
+                .toArray(String[]::new);
+        parsingCache = new ParsingCache();
+        final int side = (int) Math.ceil(Math.sqrt(size));
+        grid = IntStream.range(0, size)
+                .mapToObj(i -> new Position(i / side, i % side))
+                .toList();
+        points = IntStream.range(0, size)
+                .mapToObj(_ -> new ThreeDPosition(random.nextInt(100_000), random.nextInt(100_000), random.nextInt(100_000)))
+                .toList();
+        cloud = ThreeDPointCloud.of(points.toArray(ThreeDPosition[]::new));
+        distances = new long[size];
+    }
+
+    private int nextIndex() {
+        index = (index + 1) % size;
+        return index;
+    }
+
+    @Benchmark
+    public int cachedParseInt() {
+        // Outside of within() nothing is cached, so bind the cache, once for all size numbers like the runner does for
+        // a whole challenge. Divide by size for the time per number.
+        return parsingCache.within(() -> {
+            int sum = 0;
+            for (final String number : numbers) {
+                sum += UtParsing.cachedParseInt(number);
+            }
+            return sum;
+        });
+    }
+
+    @Benchmark
+    public int parseIntUncached() {
+        // What cachedParseInt has to beat to be worth a hash lookup and keeping every string alive.
+        int sum = 0;
+        for (final String number : numbers) {
+            sum += Integer.parseInt(number);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<Position> getOmnidirectionalNeighbours() {
+        return grid.get(nextIndex()).getOmnidirectionalNeighbours();
+    }
+
+    @Benchmark
+    public List<Position> getCardinalNeighbours() {
+        return grid.get(nextIndex()).getCardinalNeighbours();
+    }
+
+    @Benchmark
+    public void forEachOmnidirectionalNeighbour(final Blackhole blackhole) {
+        grid.get(nextIndex()).forEachNeighbour(Position.NeighbourDirection.OMNIDIRECTIONAL, (y, x) -> {
+            blackhole.consume(y);
+            blackhole.consume(x);
+        });
+    }
+
+    @Benchmark
+    public long[] fillOmnidirectionalNeighbours() {
+        grid.get(nextIndex()).fillNeighbours(Position.NeighbourDirection.OMNIDIRECTIONAL, neighbourBuffer);
+        return neighbourBuffer;
+    }
+
+    @Benchmark
+    public void forEachCardinalThreeDNeighbour(final Blackhole blackhole) {
+        points.get(nextIndex()).forEachNeighbour(ThreeDPosition.NeighbourDirection.CARDINAL, (x, y, z) -> {
+            blackhole.consume(x);
+            blackhole.consume(y);
+            blackhole.consume(z);
+        });
+    }
+
+    @Benchmark
+    public void streamPairwise(final Blackhole blackhole) {
+        UtCollections.streamPairwise(points).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long getSquaredStraightLineDistanceFrom() {
+        final int first = nextIndex();
+        return points.get(first).getSquaredStraightLineDistanceFrom(points.get((first * 31) % size));
+    }
+
+    @Benchmark
+    public long[] getSquaredStraightLineDistances() {
+        cloud.getSquaredStraightLineDistances(nextIndex(), 0, size, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public long fillSquaredStraightLineDistancesOneByOne() {
+        // The plain loop on its own, which is all getSquaredStraightLineDistances has without the Vector API.
+        return cloud.fillSquaredStraightLineDistancesOneByOne(nextIndex(), 0, size, distances, 0);
+    }
+}
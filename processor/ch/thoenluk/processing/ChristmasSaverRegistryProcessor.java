@@ -0,0 +1,128 @@
+package ch.thoenluk.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes down every ChristmasSaver at compile time, so the ChallengeRunner can find them without walking the source tree
+ * and without loading a single class it isn't asked to run.
+ * <p>
+ * The index is a resource with one "day TAB binary class name" line per ChristmasSaver, see ChristmasSaverRegistry for
+ * the reading end. Every ChristmasSaver gets a line, @Day or not: those without one are day -1, just like when the
+ * ChallengeRunner still had to go looking for them itself. Deliberately knows the annotations only by name, so this can be compiled before the rest of the
+ * project: compile this source root first, then put its output (META-INF/services included) on the annotation processor
+ * path when compiling src.
+ */
+// Every class, not just the annotated ones, or a ChristmasSaver without a @Day would never make it into the index.
+@SupportedAnnotationTypes("*")
+public class ChristmasSaverRegistryProcessor extends AbstractProcessor {
+    private static final String DAY = "ch.thoenluk.Day";
+    private static final String INPUT_FORMAT = "ch.thoenluk.InputFormat";
+    private static final int NO_DAY = -1;
+    private static final String CHRISTMAS_SAVER = "ch.thoenluk.ChristmasSaver";
+    private static final String INDEX_RESOURCE = "META-INF/ch.thoenluk/christmas-savers";
+
+    // Keyed by class name, so a class seen by both annotations, or in both an old index and this compilation, counts once.
+    private final Map<String, Integer> daysByClassName = new TreeMap<>();
+    private boolean readPreviousIndex = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (!readPreviousIndex) {
+            readPreviousIndex();
+            readPreviousIndex = true;
+        }
+        final TypeElement christmasSaver = processingEnv.getElementUtils().getTypeElement(CHRISTMAS_SAVER);
+        if (christmasSaver != null) {
+            ElementFilter.typesIn(roundEnv.getRootElements()).forEach(type -> register(type, christmasSaver));
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false; // Other processors are welcome to look at these annotations too.
+    }
+
+    private void register(final TypeElement type, final TypeElement christmasSaver) {
+        ElementFilter.typesIn(type.getEnclosedElements()).forEach(nested -> register(nested, christmasSaver));
+        final AnnotationMirror dayAnnotation = findAnnotation(type, DAY);
+        final TypeMirror christmasSaverType = processingEnv.getTypeUtils().erasure(christmasSaver.asType());
+        if (!processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), christmasSaverType)) {
+            if (dayAnnotation != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Has a @Day, but doesn't save Christmas.", type);
+            }
+            return;
+        }
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return; // Can't run those, so the menu has no use for them.
+        }
+        if (findAnnotation(type, INPUT_FORMAT) == null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "A ChristmasSaver also needs an @InputFormat.", type);
+            return;
+        }
+        final int dayValue = dayAnnotation == null ? NO_DAY : dayAnnotation.getElementValues().entrySet().stream()
+                .filter(entry -> entry.getKey().getSimpleName().contentEquals("value"))
+                .map(entry -> (Integer) entry.getValue().getValue())
+                .findAny()
+                .orElseThrow();
+        daysByClassName.put(processingEnv.getElementUtils().getBinaryName(type).toString(), dayValue);
+    }
+
+    private static AnnotationMirror findAnnotation(final TypeElement type, final String annotationName) {
+        return type.getAnnotationMirrors().stream()
+                .filter(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+                .findAny()
+                .orElse(null);
+    }
+
+    // An incremental build only shows us the classes that changed, so start from whatever the last build found.
+    // Classes deleted since then stay listed until a full rebuild, and the ChallengeRunner complains once asked to load one.
+    private void readPreviousIndex() {
+        try {
+            final FileObject previousIndex = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (final Reader reader = previousIndex.openReader(true); final BufferedReader lines = new BufferedReader(reader)) {
+                lines.lines()
+                        .filter(line -> !line.isBlank())
+                        .map(line -> line.split("\t"))
+                        .forEach(parts -> daysByClassName.put(parts[1], Integer.parseInt(parts[0])));
+            }
+        } catch (final IOException | IllegalArgumentException e) {
+            // No previous index, or one we can't read. Either way, we start from scratch.
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (final Writer writer = index.openWriter()) {
+                // The map is already sorted by class name, which keeps two ChristmasSavers on the same day in a stable order.
+                for (final Map.Entry<String, Integer> entry : daysByClassName.entrySet().stream()
+                        .sorted(Map.Entry.comparingByValue())
+                        .toList()) {
+                    writer.write(String.format("%s\t%s%n", entry.getValue(), entry.getKey()));
+                }
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't write the ChristmasSaver registry: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ch.thoenluk;
 
+import ch.thoenluk.ut.AsciiInput;
+import ch.thoenluk.ut.ParsingCache;
 import ch.thoenluk.ut.UtParsing;
 import ch.thoenluk.ut.UtStrings;
 
@@ -10,12 +12,18 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 import static ch.thoenluk.ut.UtStrings.println;
 
@@ -28,37 +36,56 @@ public class ChallengeRunner {
     private final static Scanner USER_INPUT = new Scanner(System.in);
     private final static String FIRST_CHALLENGE_SUFFIX = "1";
     private final static String SECOND_CHALLENGE_SUFFIX = "2";
+    private final static String ACTUAL_INPUT_FILE_NAME = "input.txt";
     public static final int NANO_TO_MILLI = 1_000_000;
-    private final List<? extends Class<? extends ChristmasSaver<?>>> christmasSaverClasses = findChristmasSaverClasses();
+    private static final int DEFAULT_WARM_UP_REPETITIONS = 5;
+    private static final int DEFAULT_MEASURED_REPETITIONS = 20;
+    private static final double DEFAULT_REGRESSION_THRESHOLD_PERCENT = 10;
+    private static final int DEFAULT_MAX_PROFILING_SCALE = 1_000;
+    private static final long PROFILING_SEED = 2025;
+    private static final long PROFILING_BUDGET_NANOS = 10_000L * NANO_TO_MILLI;
+    private final List<ChristmasSaverRegistry.Entry> christmasSavers = findChristmasSavers();
     private Supplier<int[]> daySelectionStrategy = this::getSelectedChallengeFromUser;
-    private Function<Integer, Long> executionStrategy = this::testAndRunChristmasSaver;
+    private Function<Integer, List<PartMeasurement>> executionStrategy = this::testAndRunChristmasSaver;
+    private Function<int[], List<PartMeasurement>> schedulingStrategy = this::executeOneAfterAnother;
+    private Consumer<List<PartMeasurement>> summaryStrategy = this::printTrimmedSummary;
+    private Consumer<List<TimingHistory.TimingRecord>> baselineStrategy = this::ignoreBaseline;
+    private BiConsumer<Integer, ParsingCache> parsingCacheReportStrategy = this::ignoreParsingCache;
+    private Consumer<Runnable> recordingStrategy = Runnable::run;
+    private Path recordingFile = null;
+    // Only there when the parts ran at once, and their own garbage collection numbers can't be added up.
+    private Optional<ResourceUsage> runWideGcUsage = Optional.empty();
     private int[] argsChallenges = null;
+    private int warmUpRepetitions = DEFAULT_WARM_UP_REPETITIONS;
+    private int measuredRepetitions = DEFAULT_MEASURED_REPETITIONS;
+    private double regressionThresholdPercent = DEFAULT_REGRESSION_THRESHOLD_PERCENT;
+    private int maxProfilingScale = DEFAULT_MAX_PROFILING_SCALE;
 
     void main(final String[] args) {
         printChallengeFolderNames();
         pickStrategies(args);
-        executeChristmasSavers();
+        recordingStrategy.accept(this::executeChristmasSavers);
     }
 
     private void printChallengeFolderNames() {
         println("Scanning for challenge folders...");
-        println(String.format("Found %s challenges: ", christmasSaverClasses.size()));
+        println(String.format("Found %s challenges: ", christmasSavers.size()));
         final StringBuilder output = new StringBuilder();
-        for (int i = 0; i < christmasSaverClasses.size(); i++) {
-            output.append(String.format("%s:\t %s\n", i, getChallengeFolderName(christmasSaverClasses.get(i))));
+        for (int i = 0; i < christmasSavers.size(); i++) {
+            output.append(String.format("%s:\t %s\n", i, christmasSavers.get(i).challengeFolderName()));
         }
         println(output.toString());
     }
 
-    private String getChallengeFolderName(final Class<? extends ChristmasSaver<?>> christmasSaverClass) {
-        final String fullPackageName = christmasSaverClass.getPackage().getName();
-        return fullPackageName.substring(fullPackageName.lastIndexOf('.') + 1);
-    }
-
     private void pickStrategies(final String[] args) {
         final String flag;
         if (args.length == 0) {
-            println("No flags detected. Proceeding with default. Btw: You can use these flags: 'default', 'latest', 'latest-second-only', 'speedrun', 'challenges'.\n" + "For 'challenges', also give the challenges you want in a space-separated list.");
+            println("No flags detected. Proceeding with default. Btw: You can use these flags: 'default', 'latest', 'latest-second-only', 'speedrun', 'parallel-speedrun', 'challenges', 'bench', 'baseline', 'compare', 'profile', 'record'.\n" + "For 'challenges', also give the challenges you want in a space-separated list.\n"
+                    + "For 'bench', optionally give the number of warm-ups, the number of measured repetitions and then the challenges. No challenges means all of them.\n"
+                    + "'baseline' benchmarks the given (or all) challenges and stores the result as the baseline. 'compare' does the same, but compares against that baseline instead.\n"
+                    + "For 'compare', optionally give the percentage a median may grow by before it counts as a regression, then the challenges.\n"
+                    + "For 'profile', optionally give the largest multiple of the real input size to try, then the challenges.\n"
+                    + "For 'record', give the .jfr file to write a flight recording to, then any of the other flags with their arguments.");
             flag = "default";
         } else {
             flag = args[0];
@@ -80,19 +107,168 @@ public class ChallengeRunner {
                 daySelectionStrategy = this::selectAllChallenges;
                 executionStrategy = this::onlyRunChristmasSaver;
             }
+            case "parallel-speedrun" -> {
+                daySelectionStrategy = this::selectAllChallenges;
+                executionStrategy = this::onlyRunChristmasSaverConcurrently;
+                schedulingStrategy = this::executeConcurrently;
+            }
             case "challenges" -> {
                 daySelectionStrategy = this::selectChallengesFromArgs;
                 executionStrategy = this::testAndRunChristmasSaver;
                 argsChallenges = Arrays.stream(args, 1, args.length).mapToInt(UtParsing::cachedParseInt).toArray();
             }
+            case "bench" -> {
+                final int[] numbers = Arrays.stream(args, 1, args.length).mapToInt(UtParsing::cachedParseInt).toArray();
+                warmUpRepetitions = numbers.length > 0 ? numbers[0] : DEFAULT_WARM_UP_REPETITIONS;
+                measuredRepetitions = numbers.length > 1 ? numbers[1] : DEFAULT_MEASURED_REPETITIONS;
+                if (measuredRepetitions < 1) throw new IllegalArgumentException("Measuring nothing is fast, but not useful.");
+                pickBenchmarkStrategies(numbers.length > 2 ? Arrays.copyOfRange(numbers, 2, numbers.length) : new int[0]);
+            }
+            case "baseline" -> {
+                pickBenchmarkStrategies(Arrays.stream(args, 1, args.length).mapToInt(UtParsing::cachedParseInt).toArray());
+                baselineStrategy = this::storeBaseline;
+            }
+            case "compare" -> {
+                regressionThresholdPercent = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_REGRESSION_THRESHOLD_PERCENT;
+                pickBenchmarkStrategies(Arrays.stream(args, Math.min(2, args.length), args.length).mapToInt(UtParsing::cachedParseInt).toArray());
+                baselineStrategy = this::compareAgainstBaseline;
+            }
+            case "profile" -> {
+                final int[] numbers = Arrays.stream(args, 1, args.length).mapToInt(UtParsing::cachedParseInt).toArray();
+                maxProfilingScale = numbers.length > 0 ? numbers[0] : DEFAULT_MAX_PROFILING_SCALE;
+                argsChallenges = numbers.length > 1 ? Arrays.copyOfRange(numbers, 1, numbers.length) : null;
+                daySelectionStrategy = argsChallenges == null ? this::selectAllChallenges : this::selectChallengesFromArgs;
+                executionStrategy = this::profileChristmasSaver;
+                summaryStrategy = this::skipSummary;
+            }
+            case "record" -> {
+                if (args.length < 2) throw new IllegalArgumentException("Recording is all well and good, but where to?");
+                recordingFile = Path.of(args[1]);
+                recordingStrategy = this::recordFlight;
+                pickStrategies(Arrays.copyOfRange(args, 2, args.length));
+            }
+        }
+    }
+
+    private void recordFlight(final Runnable execution) {
+        try (final Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+            recording.setName("Saving Christmas");
+            recording.start();
+            try {
+                execution.run();
+            } finally {
+                // Especially if it blew up. That's when you want to know what happened.
+                recording.stop();
+                recording.dump(recordingFile);
+                println(String.format("Wrote the flight recording to %s.", recordingFile.toAbsolutePath()));
+            }
+        } catch (final IOException | ParseException e) {
+            throw new AssertionError(e);
         }
     }
 
+    private void pickBenchmarkStrategies(final int[] challenges) {
+        argsChallenges = challenges.length > 0 ? challenges : null;
+        daySelectionStrategy = argsChallenges == null ? this::selectAllChallenges : this::selectChallengesFromArgs;
+        executionStrategy = this::benchmarkChristmasSaver;
+        summaryStrategy = this::printPercentileSummary;
+        parsingCacheReportStrategy = this::printParsingCache;
+    }
+
     private void executeChristmasSavers() {
         final int[] challenges = daySelectionStrategy.get();
-        final List<Long> executionTimes = Arrays.stream(challenges).mapToObj(executionStrategy::apply).toList();
+        final List<PartMeasurement> measurements = schedulingStrategy.apply(challenges);
+        summaryStrategy.accept(measurements);
+        final List<TimingHistory.TimingRecord> records = TimingHistory.toRecords(measurements, christmasSavers::get);
+        TimingHistory.append(TimingHistory.HISTORY, records);
+        baselineStrategy.accept(records);
+    }
+
+    private void ignoreBaseline(final List<TimingHistory.TimingRecord> records) {
+        // It's in the history, that's enough.
+    }
+
+    private void storeBaseline(final List<TimingHistory.TimingRecord> records) {
+        TimingHistory.overwrite(TimingHistory.BASELINE, records);
+        println(String.format("Stored these %s timings as the new baseline in %s.", records.size(), TimingHistory.BASELINE));
+    }
+
+    private void compareAgainstBaseline(final List<TimingHistory.TimingRecord> records) {
+        final Optional<List<TimingHistory.TimingRecord>> baseline = TimingHistory.read(TimingHistory.BASELINE);
+        if (baseline.isEmpty()) {
+            println("There's no baseline to compare against yet, so this run gets to be it.");
+            storeBaseline(records);
+            return;
+        }
+        final List<String> regressions = TimingHistory.findRegressions(baseline.get(), records, regressionThresholdPercent);
+        if (!regressions.isEmpty()) {
+            throw new AssertionError(String.format("These got more than %s%% slower than the baseline:%n%s", regressionThresholdPercent, String.join(System.lineSeparator(), regressions)));
+        }
+        println(String.format("Nothing got more than %s%% slower than the baseline. Good job, past self.", regressionThresholdPercent));
+    }
+
+    private List<PartMeasurement> executeOneAfterAnother(final int[] challenges) {
+        return Arrays.stream(challenges)
+                .mapToObj(this::executeWithParsingCache)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<PartMeasurement> executeConcurrently(final int[] challenges) {
+        // The parts' own garbage collection numbers overlap when they run at once, so count the collections once for all of them.
+        final ResourceUsage gcUsageBeforeStart = ResourceUsage.now();
+        final long nanosBeforeStart = System.nanoTime();
+        final List<PartMeasurement> measurements = forkOnPlatformThreads(Arrays.stream(challenges)
+                        .mapToObj(challenge -> (Callable<List<PartMeasurement>>) () -> executeWithParsingCache(challenge))
+                        .toList())
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+        final long makespan = System.nanoTime() - nanosBeforeStart;
+        final long summedSolveNanos = measurements.stream().mapToLong(PartMeasurement::solveNanos).sum();
+        final long summedCpuNanos = ResourceUsage.sumMeasured(measurements.stream().mapToLong(PartMeasurement::cpuNanos).toArray());
+        final long summedAllocatedBytes = ResourceUsage.sumMeasured(measurements.stream().mapToLong(PartMeasurement::allocatedBytes).toArray());
+        final ResourceUsage gcUsage = ResourceUsage.now().since(gcUsageBeforeStart);
+        runWideGcUsage = Optional.of(gcUsage);
+        println(String.format("""
+                Ran %s parts on %s cores with a makespan of %sms.
+                Between them they used %s of CPU time and %sms of wall-clock time, so running them all at once was %.1f times faster.
+                They allocated %s and the JVM collected garbage %s times for %sms in the meantime.""",
+                measurements.size(), Runtime.getRuntime().availableProcessors(), makespan / NANO_TO_MILLI,
+                ResourceUsage.formatNanosAsMillis(summedCpuNanos), summedSolveNanos / NANO_TO_MILLI, (double) summedSolveNanos / makespan,
+                ResourceUsage.formatBytes(summedAllocatedBytes), gcUsage.gcCount(), gcUsage.gcMillis()));
+        return measurements;
+    }
+
+    private List<PartMeasurement> executeWithParsingCache(final int challenge) {
+        // One cache per challenge, shared by its tests, parts and forks, and thrown away with everything it cached after.
+        final ParsingCache parsingCache = new ParsingCache();
+        final List<PartMeasurement> measurements = parsingCache.within(() -> executionStrategy.apply(challenge));
+        parsingCacheReportStrategy.accept(challenge, parsingCache);
+        return measurements;
+    }
+
+    // Most parsers scan and never touch the cache, so outside of benchmarks this would mostly be a wall of zeroes.
+    private void ignoreParsingCache(final int challenge, final ParsingCache parsingCache) {
+    }
+
+    private void printParsingCache(final int challenge, final ParsingCache parsingCache) {
+        println(String.format("Parsing caches for challenge %s: %s", challenge, parsingCache));
+    }
+
+    private void printTrimmedSummary(final List<PartMeasurement> measurements) {
+        final List<Long> executionTimes = sumSolveNanosPerChallenge(measurements);
         final long total = executionTimes.stream().reduce(0L, Long::sum);
         println(String.format("Took a total of %sms for it all!", total / NANO_TO_MILLI));
+        // Parts that ran at once all saw the same collections, so adding theirs up would count each one several times.
+        final long gcCount = runWideGcUsage.map(ResourceUsage::gcCount)
+                .orElseGet(() -> measurements.stream().mapToLong(PartMeasurement::gcCount).sum());
+        final long gcMillis = runWideGcUsage.map(ResourceUsage::gcMillis)
+                .orElseGet(() -> measurements.stream().mapToLong(PartMeasurement::gcMillis).sum());
+        println(String.format("Along the way, we used %s of CPU time, allocated %s and sat through %s garbage collections taking %sms.",
+                ResourceUsage.formatNanosAsMillis(ResourceUsage.sumMeasured(measurements.stream().mapToLong(PartMeasurement::cpuNanos).toArray())),
+                ResourceUsage.formatBytes(ResourceUsage.sumMeasured(measurements.stream().mapToLong(PartMeasurement::allocatedBytes).toArray())),
+                gcCount, gcMillis));
         if (executionTimes.size() > 2) {
             final long average = total / executionTimes.size();
             final List<Long> sorted = executionTimes.stream().sorted().toList();
@@ -106,14 +282,49 @@ public class ChallengeRunner {
         }
     }
 
+    private void printPercentileSummary(final List<PartMeasurement> measurements) {
+        // No ignoring the worst offenders here. The worst offenders are the point.
+        final long[] parseNanos = measurements.stream().mapToLong(PartMeasurement::parseNanos).toArray();
+        final long[] solveNanos = measurements.stream().mapToLong(PartMeasurement::solveNanos).toArray();
+        // A -1 is the JVM shrugging, not a part that took no time at all, so those don't get to be the minimum.
+        final long[] cpuNanos = ResourceUsage.onlyMeasured(measurements.stream().mapToLong(PartMeasurement::cpuNanos).toArray());
+        final long[] allocatedBytes = ResourceUsage.onlyMeasured(measurements.stream().mapToLong(PartMeasurement::allocatedBytes).toArray());
+        final long[] gcMillis = measurements.stream().mapToLong(PartMeasurement::gcMillis).toArray();
+        println(String.format("""
+                Across the medians of all %s benchmarked parts:
+                Parsing: %s
+                Solving: %s
+                CPU: %s
+                Allocating: %s
+                Collecting garbage: %s""", measurements.size(), TimingStatistics.of(parseNanos), TimingStatistics.of(solveNanos),
+                describeMeasured(cpuNanos, TimingStatistics::toString),
+                describeMeasured(allocatedBytes, statistics -> statistics.toString(ResourceUsage::formatBytes)),
+                TimingStatistics.of(gcMillis).toString(millis -> millis + "ms")));
+    }
+
+    // If the JVM couldn't measure it for a single part, there's nothing to make statistics out of.
+    private static String describeMeasured(final long[] measured, final Function<TimingStatistics, String> describe) {
+        return measured.length == 0 ? "n/a" : describe.apply(TimingStatistics.of(measured));
+    }
+
+    private void skipSummary(final List<PartMeasurement> measurements) {
+        // Nothing was measured on the real input, so there's nothing to sum up.
+    }
+
+    private static List<Long> sumSolveNanosPerChallenge(final List<PartMeasurement> measurements) {
+        final Map<Integer, Long> solveNanosPerChallenge = new LinkedHashMap<>();
+        measurements.forEach(measurement -> solveNanosPerChallenge.merge(measurement.challenge(), measurement.solveNanos(), Long::sum));
+        return List.copyOf(solveNanosPerChallenge.values());
+    }
+
     private int[] selectMostRecentChallenge() {
         println("Proceeding with highest challenge.");
-        return new int[]{christmasSaverClasses.size() - 1};
+        return new int[]{christmasSavers.size() - 1};
     }
 
     private int[] selectAllChallenges() {
         println("Proceeding with all challenges.");
-        return IntStream.range(0, christmasSaverClasses.size()).toArray();
+        return IntStream.range(0, christmasSavers.size()).toArray();
     }
 
     private int[] selectChallengesFromArgs() {
@@ -127,7 +338,7 @@ public class ChallengeRunner {
         while (selectedChallenge < 0) {
             selectedChallenge = USER_INPUT.nextInt();
 
-            if (selectedChallenge < 0 || christmasSaverClasses.size() < selectedChallenge) {
+            if (selectedChallenge < 0 || christmasSavers.size() < selectedChallenge) {
                 println("Only and exactly one of the above numbers shall you choose.");
                 selectedChallenge = -1;
             }
@@ -135,59 +346,187 @@ public class ChallengeRunner {
         return new int[]{selectedChallenge};
     }
 
-    private <I> long testAndRunChristmasSaver(final int selectedChallenge) {
+    private <I> List<PartMeasurement> testAndRunChristmasSaver(final int selectedChallenge) {
         final ChristmasSavingPackage<I> result = wrapChristmasSavingPackage(selectedChallenge);
 
         println("Running first challenge...");
-        testChristmasSaver(result.challengeFolder(), result.christmasSaver()::saveChristmas, FIRST_CHALLENGE_SUFFIX, result.inputParsingFunction());
-        final long timeForFirst = runChristmasSaver(result.christmasSaver()::saveChristmas, result.input(), result.inputParsingFunction());
+        testChristmasSaver(result, result::saveChristmas, FIRST_CHALLENGE_SUFFIX);
+        final PartMeasurement first = runChristmasSaver(selectedChallenge, FIRST_CHALLENGE_SUFFIX, result::saveChristmas, result.snapshot());
         println("What fun that was. Running second challenge...");
-        testChristmasSaver(result.challengeFolder(), result.christmasSaver()::saveChristmasAgain, SECOND_CHALLENGE_SUFFIX, result.inputParsingFunction());
-        return timeForFirst + runChristmasSaver(result.christmasSaver()::saveChristmasAgain, result.input(), result.inputParsingFunction());
+        testChristmasSaver(result, result::saveChristmasAgain, SECOND_CHALLENGE_SUFFIX);
+        return List.of(first, runChristmasSaver(selectedChallenge, SECOND_CHALLENGE_SUFFIX, result::saveChristmasAgain, result.snapshot()));
     }
 
-    private <I> long onlyRunChristmasSaver(final int selectedChallenge) {
+    private <I> List<PartMeasurement> onlyRunChristmasSaver(final int selectedChallenge) {
         final ChristmasSavingPackage<I> result = wrapChristmasSavingPackage(selectedChallenge);
         println(String.format("Challenge %s:", selectedChallenge));
-        return runChristmasSaver(result.christmasSaver()::saveChristmas, result.input(), result.inputParsingFunction())
-                + runChristmasSaver(result.christmasSaver()::saveChristmasAgain, result.input(), result.inputParsingFunction());
+        return List.of(
+                runChristmasSaver(selectedChallenge, FIRST_CHALLENGE_SUFFIX, result::saveChristmas, result.snapshot()),
+                runChristmasSaver(selectedChallenge, SECOND_CHALLENGE_SUFFIX, result::saveChristmasAgain, result.snapshot())
+        );
+    }
+
+    private <I> List<PartMeasurement> onlyRunChristmasSaverConcurrently(final int selectedChallenge) {
+        final ChristmasSavingPackage<I> result = wrapChristmasSavingPackage(selectedChallenge);
+        return forkOnPlatformThreads(List.of(
+                () -> runChristmasSaver(selectedChallenge, FIRST_CHALLENGE_SUFFIX, result::saveChristmas, result.snapshot()),
+                () -> runChristmasSaver(selectedChallenge, SECOND_CHALLENGE_SUFFIX, result::saveChristmasAgain, result.snapshot())
+        ));
     }
 
-    private <I> long onlyTestAndRunSecondChallenge(final int selectedChallenge) {
+    private <I> List<PartMeasurement> onlyTestAndRunSecondChallenge(final int selectedChallenge) {
         final ChristmasSavingPackage<I> result = wrapChristmasSavingPackage(selectedChallenge);
-        testChristmasSaver(result.challengeFolder(), result.christmasSaver()::saveChristmasAgain, SECOND_CHALLENGE_SUFFIX, result.inputParsingFunction());
-        return runChristmasSaver(result.christmasSaver()::saveChristmasAgain, result.input(), result.inputParsingFunction());
+        testChristmasSaver(result, result::saveChristmasAgain, SECOND_CHALLENGE_SUFFIX);
+        return List.of(runChristmasSaver(selectedChallenge, SECOND_CHALLENGE_SUFFIX, result::saveChristmasAgain, result.snapshot()));
+    }
+
+    private <I> List<PartMeasurement> benchmarkChristmasSaver(final int selectedChallenge) {
+        final ChristmasSavingPackage<I> result = wrapChristmasSavingPackage(selectedChallenge);
+        println(String.format("Benchmarking challenge %s with %s warm-ups and %s measured repetitions per part...", selectedChallenge, warmUpRepetitions, measuredRepetitions));
+        // Both parts share one parse, same as when running for real, so parsing is measured once and billed to the first part.
+        final long[] parseNanos = new long[measuredRepetitions];
+        InputSnapshot<I> snapshot = null;
+        for (int i = -warmUpRepetitions; i < measuredRepetitions; i++) {
+            final long nanosBeforeParsing = System.nanoTime();
+            snapshot = result.snapshotFunction().apply(result.input());
+            if (i >= 0) {
+                parseNanos[i] = System.nanoTime() - nanosBeforeParsing;
+            }
+        }
+        final TimingStatistics parseStatistics = TimingStatistics.of(parseNanos);
+        println(String.format("Parsing: %s", parseStatistics));
+        return List.of(
+                benchmarkChristmasSaver(selectedChallenge, FIRST_CHALLENGE_SUFFIX, result::saveChristmas, snapshot, parseStatistics.median()),
+                benchmarkChristmasSaver(selectedChallenge, SECOND_CHALLENGE_SUFFIX, result::saveChristmasAgain, snapshot, 0L)
+        );
+    }
+
+    private <I> PartMeasurement benchmarkChristmasSaver(final int selectedChallenge, final String challengeSuffix, final Function<I, String> savingMethod, final InputSnapshot<I> snapshot, final long parseNanos) {
+        for (int i = 0; i < warmUpRepetitions; i++) {
+            savingMethod.apply(snapshot.get());
+        }
+        final long[] solveNanos = new long[measuredRepetitions];
+        final long[] cpuNanos = new long[measuredRepetitions];
+        final long[] allocatedBytes = new long[measuredRepetitions];
+        final long[] gcCounts = new long[measuredRepetitions];
+        final long[] gcMillis = new long[measuredRepetitions];
+        String firstResult = null;
+        for (int i = 0; i < measuredRepetitions; i++) {
+            final I actualInput = snapshot.get();
+            final ResourceUsage usageBeforeSolving = ResourceUsage.now();
+            final String result = savingMethod.apply(actualInput);
+            final ResourceUsage usage = ResourceUsage.now().since(usageBeforeSolving);
+            solveNanos[i] = usage.nanos();
+            cpuNanos[i] = usage.cpuNanos();
+            allocatedBytes[i] = usage.allocatedBytes();
+            gcCounts[i] = usage.gcCount();
+            gcMillis[i] = usage.gcMillis();
+            if (firstResult == null) {
+                firstResult = result;
+            } else if (!firstResult.equals(result)) {
+                throw new AssertionError(String.format("Challenge %s part %s first said %s, but then %s. Pick one!", selectedChallenge, challengeSuffix, firstResult, result));
+            }
+        }
+        final TimingStatistics solveStatistics = TimingStatistics.of(solveNanos);
+        final TimingStatistics allocationStatistics = TimingStatistics.of(allocatedBytes);
+        final long totalGcCount = Arrays.stream(gcCounts).sum();
+        final long totalGcMillis = Arrays.stream(gcMillis).sum();
+        println(String.format("""
+                Part %s determined %s every time.
+                Solving: %s
+                Allocating: %s
+                Garbage collections: %s taking %sms over all repetitions""", challengeSuffix, firstResult, solveStatistics,
+                allocationStatistics.toString(ResourceUsage::formatBytes), totalGcCount, totalGcMillis));
+        return new PartMeasurement(selectedChallenge, challengeSuffix, parseNanos, solveStatistics.median(), TimingStatistics.of(cpuNanos).median(),
+                allocationStatistics.median(), TimingStatistics.of(gcCounts).median(), TimingStatistics.of(gcMillis).median());
+    }
+
+    private <I> List<PartMeasurement> profileChristmasSaver(final int selectedChallenge) {
+        final Class<? extends ChristmasSaver<I>> christmasSaverClass = christmasSavers.get(selectedChallenge).load();
+        final ScalableInput scalableInput = christmasSaverClass.getAnnotation(ScalableInput.class);
+        if (scalableInput == null) {
+            println(String.format("Challenge %s doesn't know how to make up bigger inputs. Skipping.", selectedChallenge));
+            return List.of();
+        }
+        println(String.format("Profiling challenge %s up to %sx the real input size...", selectedChallenge, maxProfilingScale));
+        new ComplexityProfiler(maxProfilingScale, PROFILING_SEED, PROFILING_BUDGET_NANOS).profile(
+                instantiateChristmasSaver(christmasSaverClass),
+                christmasSaverClass.getAnnotation(InputFormat.class).value(),
+                instantiateInputGenerator(scalableInput.value()));
+        // The timings were on made-up inputs. They have no business in the history.
+        return List.of();
     }
 
     private <I> ChristmasSavingPackage<I> wrapChristmasSavingPackage(final int selectedChallenge) {
         // Wrap as in wrapping paper AND as in object.
         // I only intended the wrapping paper meaning and I too hate this unintentional pun.
-        final Class<? extends ChristmasSaver<I>> christmasSaverClass = (Class<? extends ChristmasSaver<I>>) christmasSaverClasses.get(selectedChallenge);
+        final Class<? extends ChristmasSaver<I>> christmasSaverClass = christmasSavers.get(selectedChallenge).load();
         final ChristmasSaver<I> christmasSaver = instantiateChristmasSaver(christmasSaverClass);
-        final Package christmasSaverClassPackage = christmasSaverClass.getPackage();
-        final File challengeFolder = new File("src\\" + christmasSaverClassPackage.getName().replaceAll("\\.", "\\\\"));
-        final String input = findActualInput(challengeFolder);
+        final File challengeFolder = findChallengeFolder(christmasSaverClass);
+        final AsciiInput input = findActualInput(challengeFolder);
         final InputParser inputParser = christmasSaverClass.getAnnotation(InputFormat.class).value();
-        return new ChristmasSavingPackage<>(christmasSaver, challengeFolder, input, inputParser::parse);
+        final Function<AsciiInput, InputSnapshot<I>> snapshotFunction = asciiInput -> ChristmasSaverEvents.record(
+                new ChristmasSaverEvents.ParseEvent(ACTUAL_INPUT_FILE_NAME), christmasSaverClass, ChristmasSaverEvents.BOTH_PARTS,
+                () -> inputParser.snapshot(asciiInput));
+        // Runs may load the last parse from disk. Benchmarks keep using snapshotFunction, because they're there to time the parser.
+        final InputSnapshot<I> snapshot = InputSnapshot.lazily(() -> ChristmasSaverEvents.record(
+                new ChristmasSaverEvents.ParseEvent(ACTUAL_INPUT_FILE_NAME), christmasSaverClass, ChristmasSaverEvents.BOTH_PARTS,
+                () -> ParsedInputCache.snapshot(inputParser, input, new File(challengeFolder, ACTUAL_INPUT_FILE_NAME))));
+        return new ChristmasSavingPackage<>(christmasSaver, challengeFolder, input, inputParser::parse, inputParser::parse, snapshotFunction, snapshot);
+    }
+
+    static File findChallengeFolder(final Class<?> christmasSaverClass) {
+        return findChallengeFolder(christmasSaverClass.getPackage().getName());
     }
 
-    private static String findActualInput(final File challengeFolder) {
-        final File[] actualInputFiles = challengeFolder.listFiles((_, name) -> name.equals("input.txt"));
+    static File findChallengeFolder(final String packageName) {
+        return new File("src\\" + packageName.replaceAll("\\.", "\\\\"));
+    }
+
+    static AsciiInput findActualInput(final File challengeFolder) {
+        final File[] actualInputFiles = challengeFolder.listFiles((_, name) -> name.equals(ACTUAL_INPUT_FILE_NAME));
 
         if (actualInputFiles == null) throw new AssertionError();
         if (actualInputFiles.length != 1) throw new AssertionError();
 
-        return UtStrings.readFile(actualInputFiles[0]);
+        // Mapped rather than read, because some of the inputs we stress-test with are hundreds of megabytes.
+        // The test inputs are small enough to stay Strings.
+        return UtStrings.mapFile(actualInputFiles[0]);
     }
 
-    private static <I> long runChristmasSaver(final Function<I, String> savingMethod, final String input, final Function<String, I> inputParsingFunction) {
-        println("Determined the result for the challenge is:");
-        final I actualInput = inputParsingFunction.apply(input);
-        final long nanosBeforeStart = System.nanoTime();
-        println(savingMethod.apply(actualInput));
-        final long executionTime = System.nanoTime() - nanosBeforeStart;
-        println(String.format("And did it in %sms!", executionTime / NANO_TO_MILLI));
-        return executionTime;
+    private static <I> PartMeasurement runChristmasSaver(final int selectedChallenge, final String challengeSuffix, final Function<I, String> savingMethod, final InputSnapshot<I> snapshot) {
+        // Whichever part gets here first does the parsing. The other gets the same snapshot for (next to) free.
+        final long nanosBeforeParsing = System.nanoTime();
+        final I actualInput = snapshot.get();
+        final long nanosAfterParsing = System.nanoTime();
+        final ResourceUsage usageBeforeStart = ResourceUsage.now();
+        final String result = savingMethod.apply(actualInput);
+        final ResourceUsage usage = ResourceUsage.now().since(usageBeforeStart);
+        // One println, so that when the challenges run concurrently, their results at least arrive in one piece.
+        println(String.format("""
+                Determined the result for challenge %s part %s is:
+                %s
+                And did it in %sms! (%sms of CPU time, allocated %s, %s garbage collections taking %sms)""",
+                selectedChallenge, challengeSuffix, result, usage.nanos() / NANO_TO_MILLI, usage.cpuNanos() / NANO_TO_MILLI,
+                ResourceUsage.formatBytes(usage.allocatedBytes()), usage.gcCount(), usage.gcMillis()));
+        return new PartMeasurement(selectedChallenge, challengeSuffix, nanosAfterParsing - nanosBeforeParsing, usage.nanos(),
+                usage.cpuNanos(), usage.allocatedBytes(), usage.gcCount(), usage.gcMillis());
+    }
+
+    // Platform threads, because the ThreadMXBean can't tell how much CPU time or memory a virtual thread used and says -1 instead.
+    private static <T> List<T> forkOnPlatformThreads(final List<Callable<T>> tasks) {
+        try (final StructuredTaskScope<T, Void> scope = StructuredTaskScope.open(StructuredTaskScope.Joiner.awaitAllSuccessfulOrThrow(),
+                configuration -> configuration.withThreadFactory(Thread.ofPlatform().factory()))) {
+            final List<StructuredTaskScope.Subtask<T>> subtasks = tasks.stream()
+                    .map(scope::fork)
+                    .toList();
+            scope.join();
+            return subtasks.stream()
+                    .map(StructuredTaskScope.Subtask::get)
+                    .toList();
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     // I do not fear what this method does; I fear what kind of further automation I'll think up next year.
@@ -214,6 +553,18 @@ public class ChallengeRunner {
     //              Note also that every <I> in this class is method scoped and as such only loosely associated. The
     //              ChallengeRunner isn't typed, the ChristmasSaver is! All of this stuff is static anyway because, in the
     //              back-aching days of, like, 2023, a main method still had to be static and I was too lazy to create an instance.
+    // Later 2025 update: The scanning now only happens if the ChristmasSaverRegistryProcessor didn't leave us an index,
+    //                    as it would when running from a jar, where there is no file system to scan. Which, yes, means
+    //                    the "little guarantee" above is gone again. The folder is still where the package says.
+    static List<ChristmasSaverRegistry.Entry> findChristmasSavers() {
+        return ChristmasSaverRegistry.readIndex().orElseGet(() -> {
+            println("No ChristmasSaver registry found, did the annotation processor not run? Scanning the file system instead.");
+            return findChristmasSaverClasses().stream()
+                    .map(ChristmasSaverRegistry.Entry::fromClass)
+                    .toList();
+        });
+    }
+
     private static <I> List<? extends Class<? extends ChristmasSaver<I>>> findChristmasSaverClasses() {
         try (final Stream<Path> paths = Files.find(Paths.get(".", "src", "ch", "thoenluk", "solvers"), Integer.MAX_VALUE, ChallengeRunner::isJavaFile)) {
             return paths.map(Path::toString).map(ChallengeRunner::toSearchableFilePath).map(filePath -> {
@@ -239,11 +590,11 @@ public class ChallengeRunner {
         return filePath.substring(6, filePath.length() - 5).replaceAll("\\\\", ".");
     }
 
-    private static int findDayValue(final Class<?> christmasSaverClass) {
+    static int findDayValue(final Class<?> christmasSaverClass) {
         return Optional.ofNullable(christmasSaverClass.getAnnotation(Day.class)).map(Day::value).orElse(-1);
     }
 
-    private static <I> ChristmasSaver<I> instantiateChristmasSaver(final Class<? extends ChristmasSaver<I>> christmasSaverClass) {
+    static <I> ChristmasSaver<I> instantiateChristmasSaver(final Class<? extends ChristmasSaver<I>> christmasSaverClass) {
         try {
             return christmasSaverClass.getConstructor().newInstance();
         } catch (final ClassCastException | InstantiationException | IllegalAccessException |
@@ -252,7 +603,16 @@ public class ChallengeRunner {
         }
     }
 
-    private static <I> void testChristmasSaver(final File challengeFolder, final Function<I, String> savingMethod, final String challengeSuffix, final Function<String, I> inputParsingFunction) {
+    private static InputGenerator instantiateInputGenerator(final Class<? extends InputGenerator> inputGeneratorClass) {
+        try {
+            return inputGeneratorClass.getConstructor().newInstance();
+        } catch (final InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static <I> void testChristmasSaver(final ChristmasSavingPackage<I> christmasSavingPackage, final Function<I, String> savingMethod, final String challengeSuffix) {
+        final File challengeFolder = christmasSavingPackage.challengeFolder();
         final String inputPrefix = String.format("test%s_input", challengeSuffix);
         final String outputPrefix = String.format("test%s_output", challengeSuffix);
 
@@ -271,7 +631,9 @@ public class ChallengeRunner {
             for (int i = 0; i < testInputs.length; i++) {
                 final File testInput = testInputs[i];
                 final File testOutput = testOutputs[i];
-                scope.fork(() -> executeTestCase(savingMethod, testInput, testOutput, inputParsingFunction));
+                scope.fork(() -> ChristmasSaverEvents.record(new ChristmasSaverEvents.TestCaseEvent(testInput.getName()),
+                        christmasSavingPackage.christmasSaverClass(), challengeSuffix,
+                        () -> executeTestCase(christmasSavingPackage, savingMethod, challengeSuffix, testInput, testOutput)));
             }
             scope.join();
         } catch (final InterruptedException e) {
@@ -279,31 +641,59 @@ public class ChallengeRunner {
         }
     }
 
-    private static <I> void executeTestCase(final Function<I, String> savingMethod, final File testInput, final File testOutput, final Function<String, I> inputParsingFunction) {
+    private static <I> Void executeTestCase(final ChristmasSavingPackage<I> christmasSavingPackage, final Function<I, String> savingMethod,
+                                            final String challengeSuffix, final File testInput, final File testOutput) {
         UtStrings.print(String.format("Running test %s... ", testInput.getName()));
         final String testInputString = UtStrings.readFile(testInput);
-        final I actualInput = inputParsingFunction.apply(testInputString);
         final String testOutputString = UtStrings.readFile(testOutput);
-        final String actualOutput = savingMethod.apply(actualInput);
+        final I actualInput = ChristmasSaverEvents.record(new ChristmasSaverEvents.ParseEvent(testInput.getName()),
+                christmasSavingPackage.christmasSaverClass(), challengeSuffix,
+                () -> christmasSavingPackage.inputParsingFunction().apply(testInputString));
+        checkTestOutput(testInput, testInputString, testOutputString, savingMethod.apply(actualInput), "");
+        // The actual input is parsed from the bytes, so the tests had better be too, or that path is only ever tested on
+        // inputs we don't know the answer for.
+        final AsciiInput testInputBytes = UtStrings.mapFile(testInput);
+        final I actualInputFromBytes = ChristmasSaverEvents.record(new ChristmasSaverEvents.ParseEvent(testInput.getName()),
+                christmasSavingPackage.christmasSaverClass(), challengeSuffix,
+                () -> christmasSavingPackage.asciiInputParsingFunction().apply(testInputBytes));
+        checkTestOutput(testInput, testInputString, testOutputString, savingMethod.apply(actualInputFromBytes), " when parsed from the bytes");
 
+        println(String.format("Matched %s", testOutput.getName()));
+        // return 0; // Forked processes must return something, but we don't care about the return - if we fail, we throw!
+        // That used to be true, but by the magic of Java 25, no more! Hooray for typed scopes!
+        // And then the flight recorder wanted a Supplier. It giveth, it taketh away.
+        return null;
+    }
+
+    private static void checkTestOutput(final File testInput, final String testInputString, final String testOutputString, final String actualOutput, final String howParsed) {
         if (!actualOutput.equals(testOutputString)) {
             final String message = String.format("""
-                    Failed test %s
+                    Failed test %s%s
                     Input was:
                     %s
                     And expected output was:
                     %s
                     But actual output was:
-                    %s""", testInput.getName(), testInputString, testOutputString, actualOutput);
+                    %s""", testInput.getName(), howParsed, testInputString, testOutputString, actualOutput);
             throw new AssertionError(message);
         }
-
-        println(String.format("Matched %s", testOutput.getName()));
-        // return 0; // Forked processes must return something, but we don't care about the return - if we fail, we throw!
-        // That used to be true, but by the magic of Java 25, no more! Hooray for typed scopes!
     }
 
+    private record ChristmasSavingPackage<I>(ChristmasSaver<I> christmasSaver, File challengeFolder, AsciiInput input, Function<String, I> inputParsingFunction,
+                                             Function<AsciiInput, I> asciiInputParsingFunction,
+                                             Function<AsciiInput, InputSnapshot<I>> snapshotFunction, InputSnapshot<I> snapshot) {
+        Class<?> christmasSaverClass() {
+            return christmasSaver.getClass();
+        }
 
-    private record ChristmasSavingPackage<I>(ChristmasSaver<I> christmasSaver, File challengeFolder, String input, Function<String, I> inputParsingFunction) {
+        String saveChristmas(final I input) {
+            return ChristmasSaverEvents.record(new ChristmasSaverEvents.SolveEvent(), christmasSaverClass(), FIRST_CHALLENGE_SUFFIX,
+                    () -> christmasSaver.saveChristmas(input));
+        }
+
+        String saveChristmasAgain(final I input) {
+            return ChristmasSaverEvents.record(new ChristmasSaverEvents.SolveEvent(), christmasSaverClass(), SECOND_CHALLENGE_SUFFIX,
+                    () -> christmasSaver.saveChristmasAgain(input));
+        }
     }
 }
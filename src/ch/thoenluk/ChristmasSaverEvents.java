@@ -0,0 +1,76 @@
+package ch.thoenluk;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+/**
+ * Flight recorder events for everything the ChallengeRunner makes a ChristmasSaver do, so that a recording opened in
+ * Mission Control shows exactly which day and part was running when the garbage collector decided to have a moment.
+ * They cost next to nothing when nobody is recording.
+ */
+final class ChristmasSaverEvents {
+    static final String BOTH_PARTS = "both";
+
+    private ChristmasSaverEvents() {
+    }
+
+    static <T> T record(final ChristmasSaverEvent event, final Class<?> christmasSaverClass, final String part, final Supplier<T> action) {
+        event.day = ChallengeRunner.findDayValue(christmasSaverClass);
+        event.part = part;
+        event.solver = christmasSaverClass;
+        event.begin();
+        try {
+            return action.get();
+        } finally {
+            // Committed even if the action failed, because the failing phase is usually the interesting one.
+            event.commit();
+        }
+    }
+
+    @Category("Advent of Code")
+    abstract static class ChristmasSaverEvent extends Event {
+        @Label("Day")
+        int day;
+
+        @Label("Part")
+        String part;
+
+        @Label("Solver")
+        Class<?> solver;
+    }
+
+    @Name("ch.thoenluk.Parse")
+    @Label("Parse Input")
+    @Description("Turning the input text into whatever the ChristmasSaver wants to work with")
+    static final class ParseEvent extends ChristmasSaverEvent {
+        @Label("Input")
+        final String input;
+
+        ParseEvent(final String input) {
+            this.input = input;
+        }
+    }
+
+    @Name("ch.thoenluk.Solve")
+    @Label("Save Christmas")
+    @Description("One call to saveChristmas or saveChristmasAgain")
+    static final class SolveEvent extends ChristmasSaverEvent {
+    }
+
+    @Name("ch.thoenluk.TestCase")
+    @Label("Test Case")
+    @Description("Parsing and solving one test input and comparing it to the expected output")
+    static final class TestCaseEvent extends ChristmasSaverEvent {
+        @Label("Test Input")
+        final String testInput;
+
+        TestCaseEvent(final String testInput) {
+            this.testInput = testInput;
+        }
+    }
+}
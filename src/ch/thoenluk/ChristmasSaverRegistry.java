@@ -0,0 +1,69 @@
+package ch.thoenluk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The reading end of the ChristmasSaverRegistryProcessor. Knows the day and class name of every ChristmasSaver, but
+ * leaves loading the class (and running its static initialisers) until someone actually picks that ChristmasSaver.
+ */
+final class ChristmasSaverRegistry {
+    private static final String INDEX_RESOURCE = "META-INF/ch.thoenluk/christmas-savers";
+
+    private ChristmasSaverRegistry() {
+    }
+
+    /**
+     * @return Every ChristmasSaver the annotation processor found, sorted by day, or empty if the processor didn't run.
+     */
+    static Optional<List<Entry>> readIndex() {
+        try (final InputStream index = ChristmasSaverRegistry.class.getClassLoader().getResourceAsStream(INDEX_RESOURCE)) {
+            if (index == null) {
+                return Optional.empty();
+            }
+            try (final BufferedReader lines = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+                return Optional.of(lines.lines()
+                        .filter(line -> !line.isBlank())
+                        .map(Entry::fromIndexLine)
+                        .sorted(Comparator.comparingInt(Entry::day))
+                        .toList());
+            }
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    record Entry(int day, String className) {
+        static Entry fromIndexLine(final String line) {
+            final String[] parts = line.split("\t");
+            return new Entry(Integer.parseInt(parts[0]), parts[1]);
+        }
+
+        static Entry fromClass(final Class<?> christmasSaverClass) {
+            return new Entry(ChallengeRunner.findDayValue(christmasSaverClass), christmasSaverClass.getName());
+        }
+
+        String packageName() {
+            return className.substring(0, className.lastIndexOf('.'));
+        }
+
+        String challengeFolderName() {
+            final String packageName = packageName();
+            return packageName.substring(packageName.lastIndexOf('.') + 1);
+        }
+
+        <I> Class<? extends ChristmasSaver<I>> load() {
+            try {
+                return (Class<? extends ChristmasSaver<I>>) Class.forName(className).asSubclass(ChristmasSaver.class);
+            } catch (final ClassNotFoundException e) {
+                throw new AssertionError(String.format("The registry promised %s, but it isn't there. Time for a full rebuild.", className), e);
+            }
+        }
+    }
+}
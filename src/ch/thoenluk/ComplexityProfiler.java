@@ -0,0 +1,163 @@
+package ch.thoenluk;
+
+import ch.thoenluk.ut.AsciiInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static ch.thoenluk.ChallengeRunner.NANO_TO_MILLI;
+import static ch.thoenluk.ut.UtStrings.println;
+
+/**
+ * Runs a ChristmasSaver on generated inputs of 1, 10, 100... times the real size and fits a power law to how long
+ * parsing and solving took. An exponent of 1 is linear, 2 is quadratic, and anything above that is a problem waiting
+ * for a bigger input.
+ * <p>
+ * Scaling stops before the first size that the sizes so far say would take longer than the time budget, since finding
+ * out by waiting is exactly what the budget is there to prevent. It also stops at the first size that falls over, which
+ * is reported, because "falls over at 100x" is the more useful half of the answer.
+ */
+final class ComplexityProfiler {
+    private static final int SCALE_FACTOR = 10;
+    private static final int REPETITIONS = 3;
+
+    private final int maxScale;
+    private final long seed;
+    private final long budgetNanos;
+
+    ComplexityProfiler(final int maxScale, final long seed, final long budgetNanos) {
+        this.maxScale = maxScale;
+        this.seed = seed;
+        this.budgetNanos = budgetNanos;
+    }
+
+    <I> void profile(final ChristmasSaver<I> christmasSaver, final InputParser inputParser, final InputGenerator inputGenerator) {
+        // One unmeasured round first, so that the 1x numbers aren't mostly the JIT compiler.
+        measure(1, christmasSaver, inputParser, inputGenerator);
+        final List<Sample> samples = new ArrayList<>();
+        for (int scale = 1; scale <= maxScale; scale *= SCALE_FACTOR) {
+            final long predictedNanos = predictNextNanos(samples);
+            if (predictedNanos > budgetNanos) {
+                println(String.format("Going by the sizes so far, %sx would take about %sms, more than the %sms budget, so I'll stop making it bigger.",
+                        scale, predictedNanos / NANO_TO_MILLI, budgetNanos / NANO_TO_MILLI));
+                break;
+            }
+            final Sample sample = measure(scale, christmasSaver, inputParser, inputGenerator);
+            samples.add(sample);
+            println(sample);
+            if (sample.failure() != null) {
+                println(String.format("Fell over at %sx: %s", scale, sample.failure()));
+                break;
+            }
+        }
+        println(String.format("""
+                Growth with input size in bytes:
+                Parsing: %s
+                Part 1: %s
+                Part 2: %s""",
+                describeExponent(samples, Sample::parseNanos),
+                describeExponent(samples, Sample::firstPartNanos),
+                describeExponent(samples, Sample::secondPartNanos)));
+    }
+
+    private <I> Sample measure(final int scale, final ChristmasSaver<I> christmasSaver, final InputParser inputParser, final InputGenerator inputGenerator) {
+        final AsciiInput input = AsciiInput.of(inputGenerator.generate(scale, new SplittableRandom(seed)));
+        long parseNanos = 0;
+        long firstPartNanos = 0;
+        long secondPartNanos = 0;
+        String failure = null;
+        try {
+            final InputSnapshot<I> snapshot = inputParser.snapshot(input);
+            parseNanos = fastestOf(() -> inputParser.snapshot(input));
+            firstPartNanos = fastestOf(() -> christmasSaver.saveChristmas(snapshot.get()));
+            secondPartNanos = fastestOf(() -> christmasSaver.saveChristmasAgain(snapshot.get()));
+        } catch (final RuntimeException | AssertionError | OutOfMemoryError | StackOverflowError e) {
+            // Yes, even the OutOfMemoryError. Whatever took all the memory is garbage now that it's been thrown out of.
+            failure = e.toString();
+        }
+        return new Sample(scale, input.length(), parseNanos, firstPartNanos, secondPartNanos, failure);
+    }
+
+    private long fastestOf(final Supplier<?> action) {
+        // The fastest run is the one with the least noise in it, and noise is all the small inputs have otherwise.
+        long fastest = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < REPETITIONS; i++) {
+            final long nanosBefore = System.nanoTime();
+            action.get();
+            final long nanos = System.nanoTime() - nanosBefore;
+            fastest = Math.min(fastest, nanos);
+            total += nanos;
+            // The next one should take about as long as the fastest so far. Don't start it if it would end past the budget.
+            if (total + fastest > budgetNanos) {
+                break;
+            }
+        }
+        return fastest;
+    }
+
+    /**
+     * @return How long the slowest of parsing and both parts should take at the next size, going by the power law fitted
+     * to the sizes so far, or 0 if nothing was measured yet.
+     */
+    private static long predictNextNanos(final List<Sample> samples) {
+        return Math.max(predictNextNanos(samples, Sample::parseNanos),
+                Math.max(predictNextNanos(samples, Sample::firstPartNanos), predictNextNanos(samples, Sample::secondPartNanos)));
+    }
+
+    private static long predictNextNanos(final List<Sample> samples, final Function<Sample, Long> nanos) {
+        final List<Sample> measured = samples.stream()
+                .filter(sample -> nanos.apply(sample) > 0)
+                .toList();
+        if (measured.isEmpty()) {
+            return 0;
+        }
+        // Nothing that reads its whole input grows slower than linearly. Small inputs make for noisy exponents, and
+        // guessing too low is how a one second budget turns into a ten minute wait.
+        final double exponent = measured.size() < 2 ? 1 : Math.max(1, fitExponent(measured, nanos));
+        return (long) (nanos.apply(measured.getLast()) * Math.pow(SCALE_FACTOR, exponent));
+    }
+
+    private static String describeExponent(final List<Sample> samples, final Function<Sample, Long> nanos) {
+        final List<Sample> measured = samples.stream()
+                .filter(sample -> nanos.apply(sample) > 0)
+                .toList();
+        if (measured.size() < 2) {
+            return "Not enough sizes measured to tell.";
+        }
+        return String.format("about n^%.2f", fitExponent(measured, nanos));
+    }
+
+    /**
+     * Least squares through log(time) over log(size). The slope of that line is the exponent of the power law.
+     */
+    private static double fitExponent(final List<Sample> samples, final Function<Sample, Long> nanos) {
+        final double[] logSizes = samples.stream().mapToDouble(sample -> Math.log(sample.bytes())).toArray();
+        final double[] logTimes = samples.stream().mapToDouble(sample -> Math.log(nanos.apply(sample))).toArray();
+        double meanLogSize = 0;
+        double meanLogTime = 0;
+        for (int i = 0; i < logSizes.length; i++) {
+            meanLogSize += logSizes[i] / logSizes.length;
+            meanLogTime += logTimes[i] / logTimes.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < logSizes.length; i++) {
+            covariance += (logSizes[i] - meanLogSize) * (logTimes[i] - meanLogTime);
+            variance += (logSizes[i] - meanLogSize) * (logSizes[i] - meanLogSize);
+        }
+        return covariance / variance;
+    }
+
+    record Sample(int scale, int bytes, long parseNanos, long firstPartNanos, long secondPartNanos, String failure) {
+        @Override
+        public String toString() {
+            return String.format("%6sx, %12s bytes: parsing %10.3fms, part 1 %10.3fms, part 2 %10.3fms",
+                    scale, bytes, (double) parseNanos / NANO_TO_MILLI, (double) firstPartNanos / NANO_TO_MILLI,
+                    (double) secondPartNanos / NANO_TO_MILLI);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ch.thoenluk;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Makes up inputs that a ChristmasSaver accepts, in whatever size we like. The real input is one size, and one size
+ * tells you nothing about how a solution scales. This does.
+ * <p>
+ * Implementations must only take their randomness from the given generator, so that the same seed always gives the
+ * same input, and must produce inputs the ChristmasSaver can actually solve. An input that merely parses is no good.
+ *
+ * @see ScalableInput
+ */
+public interface InputGenerator {
+    /**
+     * @param scale  How many times bigger than a real input the result should be, roughly. 1 is about real-sized.
+     * @param random Where all the randomness comes from.
+     * @return The input, as it would be in input.txt.
+     */
+    String generate(int scale, RandomGenerator random);
+}
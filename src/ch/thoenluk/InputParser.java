@@ -1,32 +1,79 @@
 package ch.thoenluk;
 
+import ch.thoenluk.ut.AsciiInput;
 import ch.thoenluk.ut.UtParsing;
 import ch.thoenluk.ut.UtStrings;
 
 import java.util.function.Function;
 
 public enum InputParser {
-    EMPTY_LINE_SEPARATED_STRINGS(UtStrings::splitStringWithEmptyLines),
-    COMMA_SEPARATED_STRINGS(UtStrings::splitCommaSeparatedString),
-    MULTILINE_STRING(UtStrings::splitMultilineString),
-    STREAMED_LINES(UtStrings::streamInputAsLines),
-    COMMA_SEPARATED_INT_STREAM(UtParsing::commaSeparatedStringToIntStream),
-    COMMA_SEPARATED_LONG_LIST(UtParsing::commaSeparatedStringToLongList),
-    WHITESPACE_SEPARATED_INTEGER_LIST(UtParsing::whitespaceSeparatedStringToIntegerList),
-    WHITESPACE_SEPARATED_LONG_LIST(UtParsing::whitespaceSeparatedStringToLongList),
-    MULTILINE_POSITION_LIST(UtParsing::multilineStringToPositionList),
-    MULTILINE_3D_POSITION_LIST(UtParsing::multilineStringToThreeDPositionList),
-    MULTILINE_INTEGER_LIST(UtParsing::multilineStringToIntegerList),
-    MULTILINE_POSITION_INTEGER_MAP(UtParsing::multilineStringToPositionIntegerMap),
-    MULTILINE_POSITION_CHARACTER_MAP(UtParsing::multilineStringToPositionCharacterMap);
+    EMPTY_LINE_SEPARATED_STRINGS(UtStrings::splitStringWithEmptyLines, InputSnapshot::ofArray),
+    COMMA_SEPARATED_STRINGS(UtStrings::splitCommaSeparatedString, InputSnapshot::ofArray),
+    MULTILINE_STRING(UtStrings::splitMultilineString, UtStrings::splitMultilineString, InputSnapshot::ofArray),
+    STREAMED_LINES(UtStrings::streamInputAsLines, UtStrings::streamInputAsLines, InputSnapshot::ofStream),
+    COMMA_SEPARATED_INT_STREAM(UtParsing::commaSeparatedStringToIntStream, InputSnapshot::ofIntStream),
+    COMMA_SEPARATED_LONG_LIST(UtParsing::commaSeparatedStringToLongList, InputSnapshot::ofList),
+    COMMA_SEPARATED_LONG_ARRAY(UtParsing::commaSeparatedStringToLongArray, InputSnapshot::ofLongArray),
+    WHITESPACE_SEPARATED_INTEGER_LIST(UtParsing::whitespaceSeparatedStringToIntegerList, InputSnapshot::ofList),
+    WHITESPACE_SEPARATED_INT_ARRAY(UtParsing::whitespaceSeparatedStringToIntArray, InputSnapshot::ofIntArray),
+    WHITESPACE_SEPARATED_LONG_LIST(UtParsing::whitespaceSeparatedStringToLongList, InputSnapshot::ofList),
+    WHITESPACE_SEPARATED_LONG_ARRAY(UtParsing::whitespaceSeparatedStringToLongArray, InputSnapshot::ofLongArray),
+    MULTILINE_POSITION_LIST(UtParsing::multilineStringToPositionList, InputSnapshot::ofList),
+    MULTILINE_3D_POSITION_LIST(UtParsing::multilineStringToThreeDPositionList, InputSnapshot::ofList),
+    MULTILINE_3D_POINT_CLOUD(UtParsing::multilineStringToThreeDPointCloud, InputSnapshot::ofPointCloud),
+    MULTILINE_INTEGER_LIST(UtParsing::multilineStringToIntegerList, InputSnapshot::ofList),
+    MULTILINE_INT_ARRAY(UtParsing::multilineStringToIntArray, InputSnapshot::ofIntArray),
+    MULTILINE_POSITION_INTEGER_MAP(UtParsing::multilineStringToPositionIntegerMap, UtParsing::multilineStringToPositionIntegerMap, InputSnapshot::ofMap),
+    MULTILINE_POSITION_CHARACTER_MAP(UtParsing::multilineStringToPositionCharacterMap, UtParsing::multilineStringToPositionCharacterMap, InputSnapshot::ofMap),
+    MULTILINE_CHARACTER_GRID(UtParsing::multilineStringToCharacterGrid, UtParsing::multilineStringToCharacterGrid, InputSnapshot::ofGrid),
+    MULTILINE_DIGIT_GRID(UtParsing::multilineStringToDigitGrid, UtParsing::multilineStringToDigitGrid, InputSnapshot::ofGrid);
 
     private final Function<String, ?> parsingFunction; // Give me generics on enums, you cowards.
+    private final Function<AsciiInput, ?> asciiParsingFunction;
+    private final Function<String, InputSnapshot<?>> snapshotFunction;
+    private final Function<AsciiInput, InputSnapshot<?>> asciiSnapshotFunction;
+    private final Function<Object, InputSnapshot<?>> parsedSnapshotFunction;
 
-    InputParser(Function<String, ?> parsingFunction) {
+    // Formats that are scanned, and the scanner doesn't care whether the characters are in a String or in the bytes.
+    <T> InputParser(final Function<CharSequence, T> parsingFunction, final Function<T, ? extends InputSnapshot<?>> snapshotFunction) {
+        this(parsingFunction::apply, parsingFunction::apply, snapshotFunction);
+    }
+
+    // Generic constructors on enums, however, they do give me. At least the functions have to agree with each other.
+    <T> InputParser(final Function<String, T> parsingFunction, final Function<AsciiInput, T> asciiParsingFunction, final Function<T, ? extends InputSnapshot<?>> snapshotFunction) {
         this.parsingFunction = parsingFunction;
+        this.asciiParsingFunction = asciiParsingFunction;
+        this.snapshotFunction = parsingFunction.andThen(snapshotFunction);
+        this.asciiSnapshotFunction = asciiParsingFunction.andThen(snapshotFunction);
+        this.parsedSnapshotFunction = parsed -> snapshotFunction.apply((T) parsed);
     }
 
     public <T> T parse(final String inputString) {
         return (T) parsingFunction.apply(inputString);
     }
+
+    /**
+     * Parse straight from the bytes, without first turning all of them into a String and then another String without \r.
+     */
+    public <T> T parse(final AsciiInput input) {
+        return (T) asciiParsingFunction.apply(input);
+    }
+
+    /**
+     * Parse once, then share the result with whoever asks. See InputSnapshot for what that guarantees.
+     */
+    public <T> InputSnapshot<T> snapshot(final String inputString) {
+        return (InputSnapshot<T>) snapshotFunction.apply(inputString);
+    }
+
+    public <T> InputSnapshot<T> snapshot(final AsciiInput input) {
+        return (InputSnapshot<T>) asciiSnapshotFunction.apply(input);
+    }
+
+    /**
+     * For when the parsing happened elsewhere, say in an earlier run. The result had better be what this would parse.
+     */
+    public <T> InputSnapshot<T> snapshotParsed(final T parsed) {
+        return (InputSnapshot<T>) parsedSnapshotFunction.apply(parsed);
+    }
 }
@@ -0,0 +1,91 @@
+package ch.thoenluk;
+
+import ch.thoenluk.ut.Grid;
+import ch.thoenluk.ut.ThreeDPointCloud;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A parsed input that can be handed to as many ChristmasSavers, parts and repetitions as like, from as many threads as
+ * like. Every get() returns an input nobody else can spoil: collections are unmodifiable, arrays are copied and streams
+ * are replayed from the lines they were collected into.
+ */
+@FunctionalInterface
+public interface InputSnapshot<I> {
+    I get();
+
+    static <T> InputSnapshot<Stream<T>> ofStream(final Stream<T> stream) {
+        final List<T> elements = stream.toList();
+        return elements::stream;
+    }
+
+    static InputSnapshot<IntStream> ofIntStream(final IntStream stream) {
+        final int[] elements = stream.toArray();
+        return () -> Arrays.stream(elements);
+    }
+
+    static <T> InputSnapshot<T[]> ofArray(final T[] array) {
+        // Arrays can't be made read-only, so everyone gets their own. Copying references is cheap next to parsing.
+        return array::clone;
+    }
+
+    static InputSnapshot<int[]> ofIntArray(final int[] array) {
+        return array::clone;
+    }
+
+    static InputSnapshot<long[]> ofLongArray(final long[] array) {
+        return array::clone;
+    }
+
+    static <T> InputSnapshot<List<T>> ofList(final List<T> list) {
+        final List<T> unmodifiable = Collections.unmodifiableList(list);
+        return () -> unmodifiable;
+    }
+
+    static <K, V> InputSnapshot<Map<K, V>> ofMap(final Map<K, V> map) {
+        // Wrapped rather than copied with Map.copyOf, because for a grid, copying means hashing every cell a second time.
+        // Nobody else has a reference to the parsed map, so nobody can change it under the wrapper.
+        final Map<K, V> unmodifiable = Collections.unmodifiableMap(map);
+        return () -> unmodifiable;
+    }
+
+    static InputSnapshot<Grid> ofGrid(final Grid grid) {
+        // Grids can't be changed to begin with, so everyone may have the same one.
+        return () -> grid;
+    }
+
+    static InputSnapshot<ThreeDPointCloud> ofPointCloud(final ThreeDPointCloud pointCloud) {
+        return () -> pointCloud;
+    }
+
+    /**
+     * Parses on the first get() rather than right away. Whoever asks first pays for the parsing, everyone after gets it
+     * for free, which is exactly what we want the timings to say.
+     */
+    static <I> InputSnapshot<I> lazily(final Supplier<InputSnapshot<I>> snapshotSupplier) {
+        return new InputSnapshot<>() {
+            private volatile InputSnapshot<I> snapshot;
+
+            @Override
+            public I get() {
+                InputSnapshot<I> parsed = snapshot;
+                if (parsed == null) {
+                    synchronized (this) {
+                        parsed = snapshot;
+                        if (parsed == null) {
+                            parsed = snapshotSupplier.get();
+                            snapshot = parsed;
+                        }
+                    }
+                }
+                return parsed.get();
+            }
+        };
+    }
+}
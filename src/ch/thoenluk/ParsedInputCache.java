@@ -0,0 +1,251 @@
+package ch.thoenluk;
+
+import ch.thoenluk.ut.AsciiInput;
+import ch.thoenluk.ut.Grid;
+import ch.thoenluk.ut.InputScanner;
+import ch.thoenluk.ut.IntList;
+import ch.thoenluk.ut.LongList;
+import ch.thoenluk.ut.ParallelParsing;
+import ch.thoenluk.ut.ThreeDPointCloud;
+import ch.thoenluk.ut.UtParsing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+import static ch.thoenluk.ut.UtStrings.println;
+
+/**
+ * Keeps what the parser made of an input next to the input, as bytes, so the next run can read them back in instead of
+ * parsing all over again. Only for the formats that are big, dense and simple enough to be worth it: grids, point
+ * clouds and arrays of numbers. Everything else is parsed like it always was.
+ * <p>
+ * A cache file belongs to one parser, the exact bytecode of everything that parses, and the exact bytes of one input,
+ * and says so in its header. If any of them changed, or the file is cut short or has a flipped bit anywhere, it's ignored
+ * and overwritten with a fresh parse. The worst a bad cache can do is cost one parse. Fixing a bug in UtParsing and
+ * getting the old, buggy parse back from the cache would be worse, hence the bytecode.
+ */
+final class ParsedInputCache {
+    private static final String FILE_SUFFIX = ".parsed";
+    private static final int MAGIC = 0x58_4D_41_53; // XMAS
+    private static final int VERSION = 2;
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int HASH_BYTES = 32;
+    // Every class that has a say in what a parse comes out as, nested classes included. Change any of them, and every
+    // cache file is stale. Too many rather than too few: a needless miss costs a parse, a missed change a wrong answer.
+    private static final List<Class<?>> PARSING_CLASSES = List.of(InputParser.class, UtParsing.class, InputScanner.class,
+            ParallelParsing.class, AsciiInput.class, IntList.class, LongList.class, Grid.class, ThreeDPointCloud.class);
+    private static final Optional<byte[]> PARSING_CODE_HASH = hashParsingCode();
+
+    private ParsedInputCache() {
+    }
+
+    static <T> InputSnapshot<T> snapshot(final InputParser inputParser, final AsciiInput input, final File inputFile) {
+        final Optional<BinaryFormat<T>> binaryFormat = binaryFormatFor(inputParser);
+        if (binaryFormat.isEmpty() || PARSING_CODE_HASH.isEmpty()) {
+            return inputParser.snapshot(input);
+        }
+        final Path cacheFile = Path.of(inputFile.getPath() + "." + inputParser.name() + FILE_SUFFIX);
+        final byte[] inputHash = hash(input);
+        final Optional<T> cached = read(cacheFile, inputParser, PARSING_CODE_HASH.get(), inputHash, binaryFormat.get());
+        if (cached.isPresent()) {
+            return inputParser.snapshotParsed(cached.get());
+        }
+        final T parsed = inputParser.parse(input);
+        write(cacheFile, inputParser, PARSING_CODE_HASH.get(), inputHash, binaryFormat.get(), parsed);
+        return inputParser.snapshotParsed(parsed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<BinaryFormat<T>> binaryFormatFor(final InputParser inputParser) {
+        final BinaryFormat<?> binaryFormat = switch (inputParser) {
+            case MULTILINE_CHARACTER_GRID, MULTILINE_DIGIT_GRID -> BinaryFormat.GRID;
+            case MULTILINE_3D_POINT_CLOUD -> BinaryFormat.POINT_CLOUD;
+            case WHITESPACE_SEPARATED_INT_ARRAY, MULTILINE_INT_ARRAY -> BinaryFormat.INT_ARRAY;
+            case WHITESPACE_SEPARATED_LONG_ARRAY, COMMA_SEPARATED_LONG_ARRAY -> BinaryFormat.LONG_ARRAY;
+            default -> null;
+        };
+        return Optional.ofNullable((BinaryFormat<T>) binaryFormat);
+    }
+
+    private static <T> Optional<T> read(final Path cacheFile, final InputParser inputParser, final byte[] codeHash, final byte[] inputHash, final BinaryFormat<T> binaryFormat) {
+        if (!Files.exists(cacheFile)) {
+            return Optional.empty();
+        }
+        try {
+            // Read rather than mapped. A mapping lives until the garbage collector gets around to the buffer, and on
+            // Windows, a mapped file can't be replaced, so the write after a stale read would fail. The readers copy
+            // everything out into arrays anyway, so a mapping would only ever have saved the one copy.
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(cacheFile));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return stale(cacheFile, "it's not a cache file this version can read");
+            }
+            final byte[] parserName = new byte[buffer.getInt()];
+            buffer.get(parserName);
+            if (!inputParser.name().equals(new String(parserName, StandardCharsets.US_ASCII))) {
+                return stale(cacheFile, "it was made by a different parser");
+            }
+            final byte[] cachedCodeHash = new byte[HASH_BYTES];
+            buffer.get(cachedCodeHash);
+            if (!Arrays.equals(codeHash, cachedCodeHash)) {
+                return stale(cacheFile, "the parsing code changed since");
+            }
+            final byte[] cachedHash = new byte[HASH_BYTES];
+            buffer.get(cachedHash);
+            if (!Arrays.equals(inputHash, cachedHash)) {
+                return stale(cacheFile, "the input changed since");
+            }
+            final long checksum = buffer.getLong();
+            final ByteBuffer payload = buffer.slice();
+            final CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                return stale(cacheFile, "it's corrupt");
+            }
+            return Optional.of(binaryFormat.reader().apply(payload));
+        } catch (final IOException | RuntimeException e) {
+            // Truncated, unreadable, or lying about its sizes. All the same to us.
+            return stale(cacheFile, e.toString());
+        }
+    }
+
+    private static <T> Optional<T> stale(final Path cacheFile, final String reason) {
+        println(String.format("Ignoring the parsed input cache %s, because %s.", cacheFile, reason));
+        return Optional.empty();
+    }
+
+    private static <T> void write(final Path cacheFile, final InputParser inputParser, final byte[] codeHash, final byte[] inputHash, final BinaryFormat<T> binaryFormat, final T parsed) {
+        final byte[] parserName = inputParser.name().getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer payload = ByteBuffer.allocate(binaryFormat.size().applyAsInt(parsed));
+        binaryFormat.writer().accept(parsed, payload);
+        payload.flip();
+        final CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        final ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES + parserName.length + 2 * HASH_BYTES + Long.BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(parserName.length)
+                .put(parserName)
+                .put(codeHash)
+                .put(inputHash)
+                .putLong(crc.getValue())
+                .flip();
+        // Written next to it first and then moved over it, so a run that dies halfway never leaves half a cache. Each
+        // write gets a temporary file of its own, or two runs at once could move each other's half-written files.
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (final FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                channel.write(new ByteBuffer[]{header, payload});
+            }
+            try {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            // Not being able to cache is no reason not to save Christmas.
+            println(String.format("Couldn't write the parsed input cache %s: %s", cacheFile, e));
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    private static void deleteQuietly(final Path temporaryFile) {
+        if (temporaryFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (final IOException e) {
+            println(String.format("Couldn't clean up %s either: %s", temporaryFile, e));
+        }
+    }
+
+    /**
+     * @return The hash of the class files of every parsing class, or nothing if any of them can't be found, in which
+     * case there's no telling whether a cache file is up to date, and no caching.
+     */
+    private static Optional<byte[]> hashParsingCode() {
+        final MessageDigest digest = newDigest();
+        for (final Class<?> parsingClass : PARSING_CLASSES) {
+            if (!hashBytecode(parsingClass, digest)) {
+                println(String.format("Can't find the bytecode of %s, so parsed inputs won't be cached.", parsingClass.getName()));
+                return Optional.empty();
+            }
+        }
+        return Optional.of(digest.digest());
+    }
+
+    private static boolean hashBytecode(final Class<?> type, final MessageDigest digest) {
+        final String classFile = type.getName().substring(type.getPackageName().length() + 1) + ".class";
+        try (final InputStream bytecode = type.getResourceAsStream(classFile)) {
+            if (bytecode == null) {
+                return false;
+            }
+            digest.update(bytecode.readAllBytes());
+        } catch (final IOException e) {
+            return false;
+        }
+        return Arrays.stream(type.getDeclaredClasses()).allMatch(nestedType -> hashBytecode(nestedType, digest));
+    }
+
+    private static byte[] hash(final AsciiInput input) {
+        final MessageDigest digest = newDigest();
+        digest.update(input.asByteBuffer());
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private record BinaryFormat<T>(ToIntFunction<T> size, BiConsumer<T, ByteBuffer> writer, Function<ByteBuffer, T> reader) {
+        private static final BinaryFormat<Grid> GRID = new BinaryFormat<>(Grid::binarySize, Grid::writeTo, Grid::readFrom);
+        private static final BinaryFormat<ThreeDPointCloud> POINT_CLOUD = new BinaryFormat<>(ThreeDPointCloud::binarySize, ThreeDPointCloud::writeTo, ThreeDPointCloud::readFrom);
+        private static final BinaryFormat<int[]> INT_ARRAY = new BinaryFormat<>(
+                numbers -> Integer.BYTES + numbers.length * Integer.BYTES,
+                (numbers, buffer) -> {
+                    buffer.putInt(numbers.length);
+                    buffer.asIntBuffer().put(numbers);
+                    buffer.position(buffer.position() + numbers.length * Integer.BYTES);
+                },
+                buffer -> {
+                    final int[] numbers = new int[buffer.getInt()];
+                    buffer.asIntBuffer().get(numbers);
+                    return numbers;
+                });
+        private static final BinaryFormat<long[]> LONG_ARRAY = new BinaryFormat<>(
+                numbers -> Integer.BYTES + numbers.length * Long.BYTES,
+                (numbers, buffer) -> {
+                    buffer.putInt(numbers.length);
+                    buffer.asLongBuffer().put(numbers);
+                    buffer.position(buffer.position() + numbers.length * Long.BYTES);
+                },
+                buffer -> {
+                    final long[] numbers = new long[buffer.getInt()];
+                    buffer.asLongBuffer().get(numbers);
+                    return numbers;
+                });
+    }
+}
@@ -0,0 +1,10 @@
+package ch.thoenluk;
+
+/**
+ * What one part of one challenge cost us, split into the time it took to turn the text into the input format and the
+ * time the ChristmasSaver took to save Christmas with it. The CPU time and allocated bytes are for the solving thread
+ * only, the garbage collections are for the whole JVM while it was solving. See {@link ResourceUsage}.
+ */
+record PartMeasurement(int challenge, String part, long parseNanos, long solveNanos, long cpuNanos, long allocatedBytes,
+                       long gcCount, long gcMillis) {
+}
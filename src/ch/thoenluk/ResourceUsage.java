@@ -0,0 +1,87 @@
+package ch.thoenluk;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What the current thread and the JVM have used up to a given moment. Take one before and one after, subtract, and you
+ * know what happened in between.
+ * <p>
+ * Wall-clock time, CPU time and allocated bytes are for the current thread only. Garbage collections are for the whole
+ * JVM, because there's no such thing as a garbage collection for one thread. When several challenges run at once, they
+ * all get billed for each other's collections. Anything the JVM can't measure comes out as -1.
+ */
+record ResourceUsage(long nanos, long cpuNanos, long allocatedBytes, long gcCount, long gcMillis) {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+    private static final List<GarbageCollectorMXBean> GARBAGE_COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+    private static final long UNSUPPORTED = -1;
+
+    public static ResourceUsage now() {
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (final GarbageCollectorMXBean garbageCollector : GARBAGE_COLLECTORS) {
+            gcCount += Math.max(garbageCollector.getCollectionCount(), 0);
+            gcMillis += Math.max(garbageCollector.getCollectionTime(), 0);
+        }
+        return new ResourceUsage(
+                System.nanoTime(),
+                THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : UNSUPPORTED,
+                THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled() ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : UNSUPPORTED,
+                gcCount,
+                gcMillis
+        );
+    }
+
+    public ResourceUsage since(final ResourceUsage earlier) {
+        return new ResourceUsage(
+                nanos - earlier.nanos,
+                difference(cpuNanos, earlier.cpuNanos),
+                difference(allocatedBytes, earlier.allocatedBytes),
+                gcCount - earlier.gcCount,
+                gcMillis - earlier.gcMillis
+        );
+    }
+
+    private static long difference(final long later, final long earlier) {
+        return later == UNSUPPORTED || earlier == UNSUPPORTED ? UNSUPPORTED : later - earlier;
+    }
+
+    private static com.sun.management.ThreadMXBean findThreadMXBean() {
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threadMXBean.isThreadAllocatedMemorySupported()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threadMXBean;
+    }
+
+    /**
+     * @return The values the JVM could measure, without the ones it couldn't.
+     */
+    public static long[] onlyMeasured(final long[] values) {
+        return Arrays.stream(values).filter(value -> value != UNSUPPORTED).toArray();
+    }
+
+    /**
+     * @return The sum of the values the JVM could measure, or -1 if there were values and it couldn't measure any.
+     */
+    public static long sumMeasured(final long[] values) {
+        final long[] measured = onlyMeasured(values);
+        return measured.length == 0 && values.length > 0 ? UNSUPPORTED : Arrays.stream(measured).sum();
+    }
+
+    public static String formatNanosAsMillis(final long nanos) {
+        if (nanos == UNSUPPORTED) {
+            return "unknown";
+        }
+        return String.format("%sms", nanos / 1_000_000L);
+    }
+
+    public static String formatBytes(final long bytes) {
+        if (bytes == UNSUPPORTED) {
+            return "unknown";
+        }
+        return String.format("%.1fMB", bytes / 1_048_576D);
+    }
+}
@@ -0,0 +1,16 @@
+package ch.thoenluk;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the InputGenerator that makes up bigger inputs for this ChristmasSaver, so that the profiler can find out where
+ * it stops coping.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScalableInput {
+    Class<? extends InputGenerator> value();
+}
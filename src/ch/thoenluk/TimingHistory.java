@@ -0,0 +1,165 @@
+package ch.thoenluk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static ch.thoenluk.ChallengeRunner.NANO_TO_MILLI;
+
+/**
+ * Remembers how long everything took, one tab-separated line per part per run, so that "it feels slower" can be
+ * answered with numbers. Also compares a run against a stored baseline and names every part that got slower.
+ */
+final class TimingHistory {
+    static final Path HISTORY = Path.of("timing_history.tsv");
+    static final Path BASELINE = Path.of("timing_baseline.tsv");
+    private static final String HEADER = "timestamp\tday\tchallenge\tpart\tparseNanos\tsolveNanos\tcpuNanos\tjavaVersion\tgitRevision\tallocatedBytes\tgcCount\tgcMillis";
+    private static final String HEADER_START = "timestamp\t";
+    private static final long UNKNOWN = -1;
+    private static final String UNKNOWN_REVISION = "unknown";
+
+    private TimingHistory() {
+    }
+
+    static List<TimingRecord> toRecords(final List<PartMeasurement> measurements, final IntFunction<ChristmasSaverRegistry.Entry> christmasSavers) {
+        final Instant now = Instant.now();
+        final String javaVersion = Runtime.version().toString();
+        final String gitRevision = findGitRevision();
+        return measurements.stream()
+                .map(measurement -> {
+                    final ChristmasSaverRegistry.Entry christmasSaver = christmasSavers.apply(measurement.challenge());
+                    return new TimingRecord(now, christmasSaver.day(), christmasSaver.challengeFolderName(), measurement.part(),
+                            measurement.parseNanos(), measurement.solveNanos(), measurement.cpuNanos(), javaVersion, gitRevision,
+                            measurement.allocatedBytes(), measurement.gcCount(), measurement.gcMillis());
+                })
+                .toList();
+    }
+
+    static void append(final Path file, final List<TimingRecord> records) {
+        write(file, records, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    static void overwrite(final Path file, final List<TimingRecord> records) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+        write(file, records, StandardOpenOption.CREATE_NEW);
+    }
+
+    private static void write(final Path file, final List<TimingRecord> records, final StandardOpenOption... options) {
+        final List<String> lines = new ArrayList<>(records.size() + 1);
+        if (!Files.exists(file)) {
+            lines.add(HEADER);
+        }
+        records.stream().map(TimingRecord::toLine).forEach(lines::add);
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8, options);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    static Optional<List<TimingRecord>> read(final Path file) {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    // Older files have an older header, but the same columns up front, so any header will do.
+                    .filter(line -> !line.isBlank() && !line.startsWith(HEADER_START))
+                    .map(TimingRecord::fromLine)
+                    .toList());
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * @return A line for every challenge, part and phase whose median in current exceeds its median in the baseline by
+     * more than the threshold. Parts without a baseline can't have regressed, so they aren't mentioned.
+     */
+    static List<String> findRegressions(final List<TimingRecord> baseline, final List<TimingRecord> current, final double thresholdPercent) {
+        final Map<String, List<TimingRecord>> baselineByPart = groupByPart(baseline);
+        final List<String> regressions = new ArrayList<>();
+        groupByPart(current).forEach((part, records) -> {
+            final List<TimingRecord> baselineRecords = baselineByPart.get(part);
+            if (baselineRecords == null) {
+                return;
+            }
+            findRegression(part, "parsing", baselineRecords, records, TimingRecord::parseNanos, thresholdPercent).ifPresent(regressions::add);
+            findRegression(part, "solving", baselineRecords, records, TimingRecord::solveNanos, thresholdPercent).ifPresent(regressions::add);
+        });
+        return regressions;
+    }
+
+    private static Map<String, List<TimingRecord>> groupByPart(final List<TimingRecord> records) {
+        return records.stream().collect(Collectors.groupingBy(
+                timingRecord -> String.format("%s part %s", timingRecord.challenge(), timingRecord.part()),
+                TreeMap::new,
+                Collectors.toList()));
+    }
+
+    private static Optional<String> findRegression(final String part, final String phase, final List<TimingRecord> baseline,
+                                                   final List<TimingRecord> current, final ToLongFunction<TimingRecord> nanos,
+                                                   final double thresholdPercent) {
+        final long baselineMedian = TimingStatistics.of(baseline.stream().mapToLong(nanos).toArray()).median();
+        final long currentMedian = TimingStatistics.of(current.stream().mapToLong(nanos).toArray()).median();
+        // Never mind the percentages of things that take no time at all. Going from 2µs to 3µs is not a regression.
+        if (currentMedian <= baselineMedian * (1 + thresholdPercent / 100) || currentMedian - baselineMedian < NANO_TO_MILLI / 10) {
+            return Optional.empty();
+        }
+        return Optional.of(String.format("%s, %s: median of %.3fms against a baseline of %.3fms (+%.1f%%)", part, phase,
+                (double) currentMedian / NANO_TO_MILLI, (double) baselineMedian / NANO_TO_MILLI,
+                100D * (currentMedian - baselineMedian) / Math.max(baselineMedian, 1)));
+    }
+
+    private static String findGitRevision() {
+        try {
+            final Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            final String output = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!git.waitFor(5, TimeUnit.SECONDS) || git.exitValue() != 0 || output.isEmpty()) {
+                return UNKNOWN_REVISION;
+            }
+            return output;
+        } catch (final IOException e) {
+            return UNKNOWN_REVISION; // No git, no revision. Can't blame a commit that doesn't exist.
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return UNKNOWN_REVISION;
+        }
+    }
+
+    record TimingRecord(Instant timestamp, int day, String challenge, String part, long parseNanos, long solveNanos,
+                        long cpuNanos, String javaVersion, String gitRevision, long allocatedBytes, long gcCount,
+                        long gcMillis) {
+        String toLine() {
+            return String.join("\t", timestamp.toString(), Integer.toString(day), challenge, part, Long.toString(parseNanos),
+                    Long.toString(solveNanos), Long.toString(cpuNanos), javaVersion, gitRevision, Long.toString(allocatedBytes),
+                    Long.toString(gcCount), Long.toString(gcMillis));
+        }
+
+        static TimingRecord fromLine(final String line) {
+            final String[] fields = line.split("\t");
+            return new TimingRecord(Instant.parse(fields[0]), Integer.parseInt(fields[1]), fields[2], fields[3],
+                    Long.parseLong(fields[4]), Long.parseLong(fields[5]), Long.parseLong(fields[6]), fields[7], fields[8],
+                    optionalField(fields, 9), optionalField(fields, 10), optionalField(fields, 11));
+        }
+
+        // Lines from before we counted allocations and collections simply don't know.
+        private static long optionalField(final String[] fields, final int index) {
+            return index < fields.length ? Long.parseLong(fields[index]) : UNKNOWN;
+        }
+    }
+}
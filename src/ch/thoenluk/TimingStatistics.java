@@ -0,0 +1,46 @@
+package ch.thoenluk;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+import static ch.thoenluk.ChallengeRunner.NANO_TO_MILLI;
+
+/**
+ * The numbers that tell you how a piece of code actually behaves, rather than how it behaved the one time you looked.
+ * Percentiles are nearest-rank, so every value reported is one that was really measured.
+ * Despite the name, it doesn't care whether it's given nanoseconds or bytes, as long as you tell toString which.
+ */
+record TimingStatistics(int samples, long min, long median, long p90, long p99, long max) {
+    public static TimingStatistics of(final long[] nanos) {
+        if (nanos.length == 0) throw new IllegalArgumentException("Can't make statistics out of nothing. Well, I can't.");
+        final long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return new TimingStatistics(
+                sorted.length,
+                sorted[0],
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 99),
+                sorted[sorted.length - 1]
+        );
+    }
+
+    private static long percentile(final long[] sorted, final int percentile) {
+        final int rank = (int) Math.ceil(percentile / 100D * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return toString(TimingStatistics::formatMillis);
+    }
+
+    public String toString(final LongFunction<String> format) {
+        return String.format("min %s, median %s, p90 %s, p99 %s, max %s (%s samples)",
+                format.apply(min), format.apply(median), format.apply(p90), format.apply(p99), format.apply(max), samples);
+    }
+
+    private static String formatMillis(final long nanos) {
+        return String.format("%.3fms", (double) nanos / NANO_TO_MILLI);
+    }
+}
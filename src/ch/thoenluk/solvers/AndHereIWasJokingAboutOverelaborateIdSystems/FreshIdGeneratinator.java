@@ -0,0 +1,26 @@
+package ch.thoenluk.solvers.AndHereIWasJokingAboutOverelaborateIdSystems;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class FreshIdGeneratinator implements InputGenerator {
+    private static final int RANGES = 180;
+    private static final int IDS = 1_000;
+    private static final long HIGHEST_ID = 500_000_000_000_000L;
+    private static final long MAX_RANGE_LENGTH = 1_000_000_000_000L;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < RANGES * scale; i++) {
+            final long start = random.nextLong(1, HIGHEST_ID);
+            input.append(start).append('-').append(start + random.nextLong(MAX_RANGE_LENGTH)).append('\n');
+        }
+        input.append('\n');
+        for (int i = 0; i < IDS * scale; i++) {
+            input.append(random.nextLong(1, HIGHEST_ID + MAX_RANGE_LENGTH)).append('\n');
+        }
+        return input.toString();
+    }
+}
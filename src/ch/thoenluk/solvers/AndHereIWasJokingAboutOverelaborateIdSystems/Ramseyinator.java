@@ -3,6 +3,7 @@ package ch.thoenluk.solvers.AndHereIWasJokingAboutOverelaborateIdSystems;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtParsing;
 import ch.thoenluk.ut.UtStrings;
@@ -13,14 +14,14 @@ import static ch.thoenluk.InputParser.EMPTY_LINE_SEPARATED_STRINGS;
 
 @Day(5)
 @InputFormat(EMPTY_LINE_SEPARATED_STRINGS)
+@ScalableInput(FreshIdGeneratinator.class)
 public class Ramseyinator implements ChristmasSaver<String[]> {
     @Override
     public String saveChristmas(String[] input) {
         final List<RangeButNotTheDay2Ones> ranges = UtStrings.streamInputAsLines(input[0])
                 .map(RangeButNotTheDay2Ones::fromDescription)
                 .toList();
-        return Long.toString(UtStrings.streamInputAsLines(input[1])
-                .map(UtParsing::cachedParseLong)
+        return Long.toString(Arrays.stream(UtParsing.whitespaceSeparatedStringToLongArray(input[1]))
                 .filter(id -> ranges.stream()
                         .anyMatch(range -> range.contains(id))
                 )
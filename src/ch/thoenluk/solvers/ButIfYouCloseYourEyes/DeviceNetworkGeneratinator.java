@@ -0,0 +1,70 @@
+package ch.thoenluk.solvers.ButIfYouCloseYourEyes;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+public class DeviceNetworkGeneratinator implements InputGenerator {
+    private static final int DEVICES_PER_LAYER = 25;
+    // The network gets wider, not deeper. The number of paths grows exponentially with depth, and even the real input
+    // gets uncomfortably close to overflowing a long.
+    private static final int LAYERS = 24;
+    private static final int MAX_OUTPUTS = 3;
+    private static final int SERVER_LAYER = 0;
+    private static final int YOU_LAYER = 1;
+    private static final int FFT_LAYER = 9;
+    private static final int DAC_LAYER = 16;
+    private static final int LABEL_LENGTH = 5;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final int width = DEVICES_PER_LAYER * scale;
+        final List<List<String>> layers = new ArrayList<>(LAYERS);
+        int devices = 0;
+        for (int layer = 0; layer < LAYERS; layer++) {
+            final List<String> labels = new ArrayList<>(width);
+            for (int i = 0; i < width; i++) {
+                labels.add(toLabel(devices++));
+            }
+            layers.add(labels);
+        }
+        layers.get(SERVER_LAYER).set(0, "svr");
+        layers.get(YOU_LAYER).set(0, "you");
+        layers.get(FFT_LAYER).set(0, "fft");
+        layers.get(DAC_LAYER).set(0, "dac");
+        final StringBuilder input = new StringBuilder();
+        for (int layer = 0; layer < LAYERS; layer++) {
+            final List<String> next = layer + 1 < LAYERS ? layers.get(layer + 1) : List.of("out");
+            for (int i = 0; i < width; i++) {
+                final Set<String> outputs = new LinkedHashSet<>();
+                // The first device of each layer always leads to the first of the next, so svr -> fft -> dac -> out exists.
+                if (i == 0) {
+                    outputs.add(next.getFirst());
+                }
+                final int outputCount = random.nextInt(1, Math.min(MAX_OUTPUTS, next.size()) + 1);
+                while (outputs.size() < outputCount) {
+                    outputs.add(next.get(random.nextInt(next.size())));
+                }
+                input.append(layers.get(layer).get(i)).append(':');
+                outputs.forEach(output -> input.append(' ').append(output));
+                input.append('\n');
+            }
+        }
+        return input.toString();
+    }
+
+    // Longer than the three letters the real ones get, so they can never be mistaken for svr, you, fft, dac or out.
+    private static String toLabel(final int device) {
+        final char[] label = new char[LABEL_LENGTH];
+        int remaining = device;
+        for (int i = LABEL_LENGTH - 1; i >= 0; i--) {
+            label[i] = (char) ('a' + remaining % 26);
+            remaining /= 26;
+        }
+        return new String(label);
+    }
+}
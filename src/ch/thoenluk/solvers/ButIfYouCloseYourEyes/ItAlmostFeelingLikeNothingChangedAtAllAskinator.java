@@ -3,6 +3,8 @@ package ch.thoenluk.solvers.ButIfYouCloseYourEyes;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
+import ch.thoenluk.ut.InputScanner;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtStrings;
 
@@ -16,6 +18,7 @@ import static ch.thoenluk.InputParser.STREAMED_LINES;
 
 @Day(11)
 @InputFormat(STREAMED_LINES)
+@ScalableInput(DeviceNetworkGeneratinator.class)
 public class ItAlmostFeelingLikeNothingChangedAtAllAskinator implements ChristmasSaver<Stream<String>> {
     private static final ScopedValue<Map<String, Router>> NETWORK = ScopedValue.newInstance();
     private static final ScopedValue<Stream<String>> INPUT = ScopedValue.newInstance();
@@ -84,9 +87,9 @@ public class ItAlmostFeelingLikeNothingChangedAtAllAskinator implements Christma
         private long pathsToFft = -1;
 
         public static Device fromDescription(final String description) {
-            final String[] parts = description.split(": ");
-            final String label = parts[0];
-            final List<String> outputs = Arrays.stream(parts[1].split(UtStrings.WHITE_SPACE_REGEX)).toList();
+            final InputScanner scanner = new InputScanner(description);
+            final String label = scanner.nextField(':').toString();
+            final List<String> outputs = List.of(UtStrings.splitWhitespaceSeparatedString(scanner.nextLine()));
             return switch (label) {
                 case "fft" -> new Fft(label, outputs);
                 case "dac" -> new Dac(label, outputs);
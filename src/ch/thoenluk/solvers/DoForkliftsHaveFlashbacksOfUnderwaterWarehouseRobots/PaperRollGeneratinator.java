@@ -0,0 +1,24 @@
+package ch.thoenluk.solvers.DoForkliftsHaveFlashbacksOfUnderwaterWarehouseRobots;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class PaperRollGeneratinator implements InputGenerator {
+    private static final int SIDE_LENGTH = 135;
+    private static final double PAPER_DENSITY = 0.6;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        // Scale the area, not the sides. A thousand times the input should be a thousand times the rolls.
+        final int sideLength = (int) Math.round(SIDE_LENGTH * Math.sqrt(scale));
+        final StringBuilder input = new StringBuilder();
+        for (int y = 0; y < sideLength; y++) {
+            for (int x = 0; x < sideLength; x++) {
+                input.append(random.nextDouble() < PAPER_DENSITY ? '@' : '.');
+            }
+            input.append('\n');
+        }
+        return input.toString();
+    }
+}
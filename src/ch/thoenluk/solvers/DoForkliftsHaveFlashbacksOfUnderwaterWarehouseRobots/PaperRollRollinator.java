@@ -3,54 +3,42 @@ package ch.thoenluk.solvers.DoForkliftsHaveFlashbacksOfUnderwaterWarehouseRobots
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
-import ch.thoenluk.ut.Position;
+import ch.thoenluk.ScalableInput;
+import ch.thoenluk.ut.BitGrid;
+import ch.thoenluk.ut.Grid;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static ch.thoenluk.InputParser.MULTILINE_POSITION_CHARACTER_MAP;
+import static ch.thoenluk.InputParser.MULTILINE_CHARACTER_GRID;
 
 @Day(4)
-@InputFormat(MULTILINE_POSITION_CHARACTER_MAP)
-public class PaperRollRollinator implements ChristmasSaver<Map<Position, Character>> {
-    private static final Character PAPER = '@';
+@InputFormat(MULTILINE_CHARACTER_GRID)
+@ScalableInput(PaperRollGeneratinator.class)
+public class PaperRollRollinator implements ChristmasSaver<Grid> {
+    private static final byte PAPER = '@';
+    private static final int NEIGHBOURS_THAT_BLOCK_FORKLIFTS = 4;
 
     @Override
-    public String saveChristmas(final Map<Position, Character> input) {
-        final Set<Position> paperLocations = filterToPaperLocations(input);
-        return Long.toString(findRemovablePaperLocations(paperLocations).count());
-    }
-
-    private Stream<Position> findRemovablePaperLocations(final Set<Position> paperLocations) {
-        return paperLocations.stream().filter(position -> isAccessible(position, paperLocations));
+    public String saveChristmas(final Grid input) {
+        final BitGrid paperLocations = BitGrid.of(input, PAPER);
+        return Integer.toString(findRemovablePaperLocations(paperLocations).cardinality());
     }
 
-    private static Set<Position> filterToPaperLocations(final Map<Position, Character> input) {
-        return input.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(PAPER))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+    // Every roll at once, 64 to a long, instead of asking a set about each roll's eight neighbours.
+    private BitGrid findRemovablePaperLocations(final BitGrid paperLocations) {
+        final BitGrid removablePaperLocations = paperLocations.withFewerNeighboursThan(NEIGHBOURS_THAT_BLOCK_FORKLIFTS);
+        removablePaperLocations.retainAll(paperLocations);
+        return removablePaperLocations;
     }
 
     @Override
-    public String saveChristmasAgain(final Map<Position, Character> input) {
-        final Set<Position> paperLocations = filterToPaperLocations(input);
+    public String saveChristmasAgain(final Grid input) {
+        final BitGrid paperLocations = BitGrid.of(input, PAPER);
         int result = 0;
-        List<Position> removablePapers;
+        BitGrid removablePapers;
         do {
-            removablePapers = findRemovablePaperLocations(paperLocations).toList();
-            removablePapers.forEach(paperLocations::remove);
-            result += removablePapers.size();
+            removablePapers = findRemovablePaperLocations(paperLocations);
+            paperLocations.removeAll(removablePapers);
+            result += removablePapers.cardinality();
         } while (!removablePapers.isEmpty());
         return Integer.toString(result);
     }
-
-    private boolean isAccessible(final Position position, final Set<Position> map) {
-        return position.getOmnidirectionalNeighbours().stream()
-                .filter(map::contains)
-                .count() < 4;
-    }
 }
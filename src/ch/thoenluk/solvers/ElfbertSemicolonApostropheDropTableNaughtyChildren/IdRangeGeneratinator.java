@@ -0,0 +1,29 @@
+package ch.thoenluk.solvers.ElfbertSemicolonApostropheDropTableNaughtyChildren;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.StringJoiner;
+import java.util.random.RandomGenerator;
+
+public class IdRangeGeneratinator implements InputGenerator {
+    private static final int RANGES = 35;
+    // The PostInputValidatinator only knows its distances for two to ten digits, and a range may only gain one digit.
+    // One-digit lower bounds exist, but only the one from my input. See the mandatory input hack over there.
+    private static final int MIN_DIGITS = 2;
+    private static final int MAX_DIGITS = 10;
+    private static final long HIGHEST_ID = 9_999_999_999L;
+    private static final long MAX_SPAN = 1_000_000L;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringJoiner input = new StringJoiner(",", "", "\n");
+        for (int i = 0; i < RANGES * scale; i++) {
+            final int digits = random.nextInt(MIN_DIGITS, MAX_DIGITS + 1);
+            final long smallest = (long) Math.pow(10, digits - 1);
+            final long lowerBound = random.nextLong(smallest, smallest * 10);
+            final long upperBound = Math.min(lowerBound + random.nextLong(0, Math.min(smallest * 10, MAX_SPAN)), HIGHEST_ID);
+            input.add(lowerBound + "-" + upperBound);
+        }
+        return input.toString();
+    }
+}
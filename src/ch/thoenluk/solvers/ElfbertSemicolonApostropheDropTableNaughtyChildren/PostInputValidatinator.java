@@ -4,6 +4,7 @@ import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
 import ch.thoenluk.InputParser;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtParsing;
 
@@ -14,6 +15,7 @@ import static java.util.Map.entry;
 
 @Day(2)
 @InputFormat(InputParser.COMMA_SEPARATED_STRINGS)
+@ScalableInput(IdRangeGeneratinator.class)
 public class PostInputValidatinator implements ChristmasSaver<String[]> {
     @Override
     public String saveChristmas(String[] input) {
@@ -0,0 +1,22 @@
+package ch.thoenluk.solvers.EscalatorTemporarilyStairs;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class BatteryBankGeneratinator implements InputGenerator {
+    private static final int BANKS = 200;
+    private static final int BATTERIES_PER_BANK = 100;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        for (int bank = 0; bank < BANKS * scale; bank++) {
+            for (int battery = 0; battery < BATTERIES_PER_BANK; battery++) {
+                input.append((char) ('1' + random.nextInt(9)));
+            }
+            input.append('\n');
+        }
+        return input.toString();
+    }
+}
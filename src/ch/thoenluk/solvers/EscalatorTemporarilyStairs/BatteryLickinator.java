@@ -3,6 +3,7 @@ package ch.thoenluk.solvers.EscalatorTemporarilyStairs;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtParsing;
 
@@ -14,6 +15,7 @@ import static ch.thoenluk.InputParser.STREAMED_LINES;
 
 @Day(3)
 @InputFormat(STREAMED_LINES)
+@ScalableInput(BatteryBankGeneratinator.class)
 public class BatteryLickinator implements ChristmasSaver<Stream<String>> {
     @Override
     public String saveChristmas(Stream<String> input) {
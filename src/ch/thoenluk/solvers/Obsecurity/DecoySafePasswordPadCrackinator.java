@@ -4,12 +4,14 @@ import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
 import ch.thoenluk.InputParser;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtParsing;
 
 import java.util.stream.Stream;
 
 @Day(1)
 @InputFormat(InputParser.STREAMED_LINES)
+@ScalableInput(DialTurnGeneratinator.class)
 public class DecoySafePasswordPadCrackinator implements ChristmasSaver<Stream<String>> {
     @Override
     public String saveChristmas(Stream<String> input) {
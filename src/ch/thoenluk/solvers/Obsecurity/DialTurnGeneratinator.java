@@ -0,0 +1,21 @@
+package ch.thoenluk.solvers.Obsecurity;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class DialTurnGeneratinator implements InputGenerator {
+    private static final int TURNS = 4_000;
+    private static final int MAX_DISTANCE = 999;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < TURNS * scale; i++) {
+            input.append(random.nextBoolean() ? 'R' : 'L')
+                    .append(random.nextInt(1, MAX_DISTANCE + 1))
+                    .append('\n');
+        }
+        return input.toString();
+    }
+}
@@ -3,6 +3,7 @@ package ch.thoenluk.solvers.QuoteDoNotPokenBlinkenLightsDangerOfCriticalDetonati
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtParsing;
 
@@ -18,6 +19,7 @@ import static ch.thoenluk.InputParser.STREAMED_LINES;
 
 @Day(10)
 @InputFormat(STREAMED_LINES)
+@ScalableInput(MachineManualGeneratinator.class)
 public class BlinkenLightsPokeninator implements ChristmasSaver<Stream<String>> {
     @Override
     public String saveChristmas(Stream<String> input) {
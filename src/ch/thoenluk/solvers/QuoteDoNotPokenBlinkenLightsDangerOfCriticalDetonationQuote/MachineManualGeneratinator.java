@@ -0,0 +1,60 @@
+package ch.thoenluk.solvers.QuoteDoNotPokenBlinkenLightsDangerOfCriticalDetonationQuote;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.StringJoiner;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+public class MachineManualGeneratinator implements InputGenerator {
+    private static final int MACHINES = 170;
+    private static final int MIN_LIGHTS = 4;
+    private static final int MAX_LIGHTS = 10;
+    private static final int MIN_BUTTONS = 3;
+    private static final int MAX_BUTTONS = 13;
+    private static final int MAX_JOLTAGE = 300;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        for (int machine = 0; machine < MACHINES * scale; machine++) {
+            appendMachine(input, random);
+        }
+        return input.toString();
+    }
+
+    private static void appendMachine(final StringBuilder input, final RandomGenerator random) {
+        final int lights = random.nextInt(MIN_LIGHTS, MAX_LIGHTS + 1);
+        final int[] buttons = new int[random.nextInt(MIN_BUTTONS, MAX_BUTTONS + 1)];
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i] = random.nextInt(1, 1 << lights);
+        }
+        // Press some of the buttons, and whatever lights up is the goal. That way there's always a way to get there.
+        // Unless it's all off, which the BlinkenLightsPokeninator refuses to believe is a goal. Fair enough.
+        int goal = 0;
+        while (goal == 0) {
+            for (final int button : buttons) {
+                if (random.nextBoolean()) {
+                    goal ^= button;
+                }
+            }
+        }
+        final StringBuilder diagram = new StringBuilder("[");
+        for (int light = 0; light < lights; light++) {
+            diagram.append(isSet(goal, light) ? '#' : '.');
+        }
+        input.append(diagram).append(']');
+        for (final int button : buttons) {
+            final StringJoiner wiring = new StringJoiner(",", " (", ")");
+            IntStream.range(0, lights).filter(light -> isSet(button, light)).forEach(light -> wiring.add(Integer.toString(light)));
+            input.append(wiring);
+        }
+        final StringJoiner joltages = new StringJoiner(",", " {", "}\n");
+        IntStream.range(0, lights).forEach(_ -> joltages.add(Integer.toString(random.nextInt(1, MAX_JOLTAGE + 1))));
+        input.append(joltages);
+    }
+
+    private static boolean isSet(final int bits, final int light) {
+        return (bits & (1 << light)) != 0;
+    }
+}
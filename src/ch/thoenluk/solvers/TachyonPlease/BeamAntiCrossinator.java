@@ -3,44 +3,52 @@ package ch.thoenluk.solvers.TachyonPlease;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
+import ch.thoenluk.ut.Grid;
+import ch.thoenluk.ut.LongLongMap;
+import ch.thoenluk.ut.LongSet;
+import ch.thoenluk.ut.PackedPosition;
 import ch.thoenluk.ut.Position;
 import ch.thoenluk.ut.UtCollections;
 import ch.thoenluk.ut.UtMath;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.stream.LongStream;
 
-import static ch.thoenluk.InputParser.MULTILINE_POSITION_CHARACTER_MAP;
+import static ch.thoenluk.InputParser.MULTILINE_CHARACTER_GRID;
 
 @Day(7)
-@InputFormat(MULTILINE_POSITION_CHARACTER_MAP)
-public class BeamAntiCrossinator implements ChristmasSaver<Map<Position, Character>> {
-    private static final Character SPLITTER = '^';
-    private static final Character START = 'S';
+@InputFormat(MULTILINE_CHARACTER_GRID)
+@ScalableInput(TachyonManifoldGeneratinator.class)
+public class BeamAntiCrossinator implements ChristmasSaver<Grid> {
+    private static final byte SPLITTER = '^';
+    private static final byte START = 'S';
 
     @Override
-    public String saveChristmas(Map<Position, Character> input) {
+    public String saveChristmas(Grid input) {
         return doTheThing(input);
     }
 
-    private static String doTheThing(Map<Position, Character> input) {
-        final Set<Position> splitters = UtCollections.findPositionsWithValueInMap(input, SPLITTER).collect(Collectors.toSet());
-        final Position start = UtCollections.findSinglePositionWithValueInMap(input, START);
-        final List<Position> positionsToExplore = new LinkedList<>(List.of(start));
-        final Set<Position> tachyonBeamLocations = new HashSet<>();
-        final Set<Position> usedSplitters = new HashSet<>();
+    private static String doTheThing(Grid input) {
+        final LongSet splitters = findSplitters(input);
+        final long start = PackedPosition.of(UtCollections.findSinglePositionWithValueInGrid(input, START));
+        // Positions stay packed all the way, so the queue is the only thing left that boxes them. It's a short queue.
+        final Deque<Long> positionsToExplore = new ArrayDeque<>();
+        positionsToExplore.add(start);
+        final LongSet tachyonBeamLocations = new LongSet();
+        final LongSet usedSplitters = new LongSet();
         while (!positionsToExplore.isEmpty()) {
-            final Position current = positionsToExplore.removeFirst();
-            final Position down = current.offsetBy(Position.DOWN);
-            final Stream<Position> newLocations;
+            final long current = positionsToExplore.removeFirst();
+            final long down = PackedPosition.offsetBy(current, Position.DOWN);
+            final LongStream newLocations;
             if (splitters.contains(down)) {
-                newLocations = Stream.of(down.offsetBy(Position.LEFT), down.offsetBy(Position.RIGHT));
+                newLocations = LongStream.of(PackedPosition.offsetBy(down, Position.LEFT), PackedPosition.offsetBy(down, Position.RIGHT));
                 usedSplitters.add(down);
             } else {
-                newLocations = Stream.of(down);
+                newLocations = LongStream.of(down);
             }
-            newLocations.filter(input::containsKey)
+            newLocations.filter(position -> input.contains(PackedPosition.y(position), PackedPosition.x(position)))
                 .filter(position -> !tachyonBeamLocations.contains(position))
                 .forEach(position -> {
                     tachyonBeamLocations.add(position);
@@ -50,29 +58,34 @@ public class BeamAntiCrossinator implements ChristmasSaver<Map<Position, Charact
         return Integer.toString(usedSplitters.size());
     }
 
+    private static LongSet findSplitters(final Grid input) {
+        return LongSet.of(UtCollections.findPositionsWithValueInGrid(input, SPLITTER).mapToLong(PackedPosition::of));
+    }
+
     @Override
-    public String saveChristmasAgain(Map<Position, Character> input) {
-        final Set<Position> splitters = UtCollections.findPositionsWithValueInMap(input, SPLITTER).collect(Collectors.toSet());
-        final Position start = UtCollections.findSinglePositionWithValueInMap(input, START);
-        return Long.toString(splitTimelines(start, input, splitters, new HashMap<>()));
+    public String saveChristmasAgain(Grid input) {
+        final LongSet splitters = findSplitters(input);
+        final long start = PackedPosition.of(UtCollections.findSinglePositionWithValueInGrid(input, START));
+        return Long.toString(splitTimelines(start, input, splitters, new LongLongMap()));
     }
     // I am a little sad that simply running the full solution is a heat death of the universe kinda deal. Curse you, exponential growth!
     // Then again, solving a challenge about parallel universes using recursion only feels right.
     // It's a bit of a cookie cutter solution, but only because we've been here before.
     // If nothing else, a lightning fast recursive exponential unwrapper is a neat party trick to know.
 
-    private long splitTimelines(final Position start, final Map<Position, Character> input,
-                               final Set<Position> splitters, final Map<Position, Long> timelines) {
-        Position current = start;
-        while (input.containsKey(current)) {
-            current = current.offsetBy(Position.DOWN);
+    private long splitTimelines(final long start, final Grid input,
+                               final LongSet splitters, final LongLongMap timelines) {
+        long current = start;
+        while (input.contains(PackedPosition.y(current), PackedPosition.x(current))) {
+            current = PackedPosition.offsetBy(current, Position.DOWN);
             if (splitters.contains(current)) {
-                if (timelines.containsKey(current)) {
-                    return timelines.get(current);
+                final long knownTimelines = timelines.getOrDefault(current, -1);
+                if (knownTimelines != -1) {
+                    return knownTimelines;
                 }
                 final long timelinesCreated = UtMath.superOverflowSafeSum(
-                    splitTimelines(current.offsetBy(Position.LEFT), input, splitters, timelines),
-                    splitTimelines(current.offsetBy(Position.RIGHT), input, splitters, timelines)
+                    splitTimelines(PackedPosition.offsetBy(current, Position.LEFT), input, splitters, timelines),
+                    splitTimelines(PackedPosition.offsetBy(current, Position.RIGHT), input, splitters, timelines)
                 );
                 timelines.put(current, timelinesCreated);
                 return timelinesCreated;
@@ -0,0 +1,37 @@
+package ch.thoenluk.solvers.TachyonPlease;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class TachyonManifoldGeneratinator implements InputGenerator {
+    private static final int SIDE_LENGTH = 141;
+    // How many splitters one beam meets on its way down, on average. The number of timelines grows exponentially with
+    // this, so it has to stay the same at every scale, or part 2 overflows long before it gets slow.
+    private static final double SPLITTERS_PER_BEAM = 20;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        // Odd, so that the start is right in the middle.
+        final int sideLength = (int) Math.round(SIDE_LENGTH * Math.sqrt(scale)) | 1;
+        final double splitterDensity = Math.min(0.5, SPLITTERS_PER_BEAM / (sideLength / 2D));
+        final StringBuilder input = new StringBuilder();
+        for (int y = 0; y < sideLength; y++) {
+            boolean previousWasSplitter = false;
+            for (int x = 0; x < sideLength; x++) {
+                final char tile;
+                if (y == 0) {
+                    tile = x == sideLength / 2 ? 'S' : '.';
+                } else if (y % 2 == 0 && x > 0 && x < sideLength - 1 && !previousWasSplitter && random.nextDouble() < splitterDensity) {
+                    tile = '^';
+                } else {
+                    tile = '.';
+                }
+                previousWasSplitter = tile == '^';
+                input.append(tile);
+            }
+            input.append('\n');
+        }
+        return input.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package ch.thoenluk.solvers.Test;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class GibberishGeneratinator implements InputGenerator {
+    private static final int LINES = 100;
+    private static final int LINE_LENGTH = 40;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        for (int line = 0; line < LINES * scale; line++) {
+            for (int i = 0; i < LINE_LENGTH; i++) {
+                final char letter = (char) ('a' + random.nextInt(26));
+                input.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+            }
+            input.append('\n');
+        }
+        return input.toString();
+    }
+}
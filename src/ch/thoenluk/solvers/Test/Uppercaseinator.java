@@ -3,6 +3,7 @@ package ch.thoenluk.solvers.Test;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
 
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -12,6 +13,7 @@ import static ch.thoenluk.InputParser.STREAMED_LINES;
 
 @Day(0)
 @InputFormat(STREAMED_LINES)
+@ScalableInput(GibberishGeneratinator.class)
 public class Uppercaseinator implements ChristmasSaver<Stream<String>> {
     @Override
     public String saveChristmas(final Stream<String> input) {
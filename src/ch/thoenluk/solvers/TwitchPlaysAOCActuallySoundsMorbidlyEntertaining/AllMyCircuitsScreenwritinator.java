@@ -3,26 +3,26 @@ package ch.thoenluk.solvers.TwitchPlaysAOCActuallySoundsMorbidlyEntertaining;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
-import ch.thoenluk.ut.ThreeDPosition;
-import ch.thoenluk.ut.UtCollections;
-import ch.thoenluk.ut.UtCollections.Pair;
+import ch.thoenluk.ScalableInput;
+import ch.thoenluk.ut.IntList;
+import ch.thoenluk.ut.KdTree;
+import ch.thoenluk.ut.ThreeDPointCloud;
 import ch.thoenluk.ut.UtMath;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static ch.thoenluk.InputParser.MULTILINE_3D_POSITION_LIST;
+import static ch.thoenluk.InputParser.MULTILINE_3D_POINT_CLOUD;
 
 @Day(8)
-@InputFormat(MULTILINE_3D_POSITION_LIST)
-public class AllMyCircuitsScreenwritinator implements ChristmasSaver<List<ThreeDPosition>> {
+@InputFormat(MULTILINE_3D_POINT_CLOUD)
+@ScalableInput(JunctionBoxGeneratinator.class)
+public class AllMyCircuitsScreenwritinator implements ChristmasSaver<ThreeDPointCloud> {
     @Override
-    public String saveChristmas(List<ThreeDPosition> input) {
-        final List<Connection> connections = buildConnections(input);
-        final Map<ThreeDPosition, Set<ThreeDPosition>> circuits = buildCircuits(input);
+    public String saveChristmas(ThreeDPointCloud input) {
+        final IntList[] circuits = buildCircuits(input);
 
-        connections.stream()
+        buildConnections(input)
                 .limit(1000)
                 .forEach(connection -> connection.combineCircuits(circuits));
         // And there's the obligatory challenge missing a real example.
@@ -34,40 +34,43 @@ public class AllMyCircuitsScreenwritinator implements ChristmasSaver<List<ThreeD
         // You'll note the test output is wrong, and who cares, really. It would be trivial to give a full-size example
         // for 1000 iterations, if only input and output values. If they won't, I won't.
 
-        return Integer.toString(circuits.values().stream()
+        return Integer.toString(Arrays.stream(circuits)
                 .distinct()
-                .map(Set::size)
+                .map(IntList::size)
                 .sorted(Comparator.reverseOrder())
                 .limit(3)
                 .reduce(UtMath::overflowSafeProduct)
                 .orElseThrow());
     }
 
-    private static Map<ThreeDPosition, Set<ThreeDPosition>> buildCircuits(List<ThreeDPosition> input) {
-        return input.stream().collect(Collectors.toMap(Function.identity(), position -> {
-            final Set<ThreeDPosition> value = new HashSet<>();
-            value.add(position);
-            return value;
-        }));
+    // Every box is its index in the cloud, and circuits[box] is the circuit it's in. Boxes in the same circuit share it.
+    private static IntList[] buildCircuits(ThreeDPointCloud input) {
+        final IntList[] circuits = new IntList[input.size()];
+        for (int box = 0; box < circuits.length; box++) {
+            circuits[box] = new IntList(1);
+            circuits[box].add(box);
+        }
+        return circuits;
     }
 
-    private static List<Connection> buildConnections(List<ThreeDPosition> input) {
-        return UtCollections.streamPairwise(input)
-                .map(Connection::fromEdges)
-                .sorted(Comparator.comparing(Connection::distance))
-                .toList();
+    // Used to be every pair, sorted. Half a million records for a thousand boxes is fine; over a billion for fifty
+    // thousand is not. The tree only works out the pairs we actually get to.
+    private static Stream<Connection> buildConnections(ThreeDPointCloud input) {
+        return KdTree.of(input).streamClosestPairs()
+                .map(pair -> new Connection(pair.first(), pair.second(), pair.squaredDistance()));
     }
 
     @Override
-    public String saveChristmasAgain(List<ThreeDPosition> input) {
-        final List<Connection> connections = buildConnections(input);
-        final Map<ThreeDPosition, Set<ThreeDPosition>> circuits = buildCircuits(input);
-        for (Connection connection : connections) {
+    public String saveChristmasAgain(ThreeDPointCloud input) {
+        final Iterator<Connection> connections = buildConnections(input).iterator();
+        final IntList[] circuits = buildCircuits(input);
+        while (connections.hasNext()) {
+            final Connection connection = connections.next();
             connection.combineCircuits(circuits);
-            final Set<ThreeDPosition> circuit = circuits.get(connection.start());
-            if (circuit.size() == circuits.size()) {
+            final IntList circuit = circuits[connection.start()];
+            if (circuit.size() == circuits.length) {
                 return Long.toString(
-                    ((long) connection.start().x()) * connection.end().x()
+                    ((long) input.x(connection.start())) * input.x(connection.end())
                 ); // And we end with an overflow check that the example doesn't need, which I am convinced could be avoided.
                 // My answer is 2_185_817_796, which you may notice is barely above INTEGER_MAX_VALUE.
                 // I do not like this challenge. Thankfully it wasn't hard, it just isn't good.
@@ -77,18 +80,18 @@ public class AllMyCircuitsScreenwritinator implements ChristmasSaver<List<ThreeD
         throw new IllegalStateException("Literally how did this happen?");
     }
 
-    private record Connection(ThreeDPosition start, ThreeDPosition end, long distance) {
-        public static Connection fromEdges(final Pair<ThreeDPosition> edges) {
-            return new Connection(edges.first(), edges.second(), edges.first().getSquaredStraightLineDistanceFrom(edges.second()));
-        }
-
-        public void combineCircuits(final Map<ThreeDPosition, Set<ThreeDPosition>> circuits) {
-            final Set<ThreeDPosition> result = circuits.get(start());
-            if (result.contains(end())) {
+    private record Connection(int start, int end, long distance) {
+        public void combineCircuits(final IntList[] circuits) {
+            final IntList result = circuits[start()];
+            final IntList absorbed = circuits[end()];
+            if (result == absorbed) {
                 return;
             }
-            result.addAll(circuits.get(end()));
-            circuits.get(end()).forEach(position -> circuits.put(position, result));
+            for (int i = 0; i < absorbed.size(); i++) {
+                final int box = absorbed.get(i);
+                result.add(box);
+                circuits[box] = result;
+            }
         }
     }
 }
@@ -0,0 +1,28 @@
+package ch.thoenluk.solvers.TwitchPlaysAOCActuallySoundsMorbidlyEntertaining;
+
+import ch.thoenluk.InputGenerator;
+import ch.thoenluk.ut.ThreeDPosition;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+public class JunctionBoxGeneratinator implements InputGenerator {
+    private static final int JUNCTION_BOXES = 1_000;
+    private static final int MAX_COORDINATE = 99_999;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        // Two boxes in the same place would make the circuits map very unhappy.
+        final Set<ThreeDPosition> junctionBoxes = new HashSet<>();
+        final StringBuilder input = new StringBuilder();
+        while (junctionBoxes.size() < JUNCTION_BOXES * scale) {
+            final ThreeDPosition junctionBox = new ThreeDPosition(random.nextInt(MAX_COORDINATE + 1),
+                    random.nextInt(MAX_COORDINATE + 1), random.nextInt(MAX_COORDINATE + 1));
+            if (junctionBoxes.add(junctionBox)) {
+                input.append(junctionBox.x()).append(',').append(junctionBox.y()).append(',').append(junctionBox.z()).append('\n');
+            }
+        }
+        return input.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package ch.thoenluk.solvers.WhatDoYouMeanWritingVerticallyIsStrange;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+public class MathWorksheetGeneratinator implements InputGenerator {
+    private static final int PROBLEMS = 1_000;
+    private static final int NUMBERS_PER_PROBLEM = 4;
+    // Three digits, so that even a thousand times the problems can't overflow a long when read either way.
+    private static final int MAX_DIGITS = 3;
+
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder[] rows = new StringBuilder[NUMBERS_PER_PROBLEM + 1];
+        Arrays.setAll(rows, _ -> new StringBuilder());
+        for (int problem = 0; problem < PROBLEMS * scale; problem++) {
+            if (problem > 0) {
+                Arrays.stream(rows).forEach(row -> row.append(' '));
+            }
+            appendProblem(rows, random);
+        }
+        final StringBuilder input = new StringBuilder();
+        Arrays.stream(rows).forEach(row -> input.append(row).append('\n'));
+        return input.toString();
+    }
+
+    private static void appendProblem(final StringBuilder[] rows, final RandomGenerator random) {
+        final int width = random.nextInt(1, MAX_DIGITS + 1);
+        // Lengths must only shrink (or only grow) downwards, so that reading a column top to bottom never skips a row.
+        // And one number must be full width, otherwise the problem has a blank column and becomes two problems.
+        final int[] lengths = new int[NUMBERS_PER_PROBLEM];
+        lengths[0] = width;
+        for (int i = 1; i < lengths.length; i++) {
+            lengths[i] = random.nextInt(1, lengths[i - 1] + 1);
+        }
+        final boolean growing = random.nextBoolean();
+        final boolean rightAligned = random.nextBoolean();
+        for (int i = 0; i < NUMBERS_PER_PROBLEM; i++) {
+            final int length = lengths[growing ? NUMBERS_PER_PROBLEM - 1 - i : i];
+            final String number = randomNumber(length, random);
+            final String padding = " ".repeat(width - length);
+            rows[i].append(rightAligned ? padding + number : number + padding);
+        }
+        rows[NUMBERS_PER_PROBLEM].append(random.nextBoolean() ? '+' : '*').append(" ".repeat(width - 1));
+    }
+
+    private static String randomNumber(final int length, final RandomGenerator random) {
+        final StringBuilder number = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            number.append((char) ('1' + random.nextInt(9)));
+        }
+        return number.toString();
+    }
+}
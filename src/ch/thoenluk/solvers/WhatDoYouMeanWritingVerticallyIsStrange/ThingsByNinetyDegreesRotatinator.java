@@ -4,6 +4,7 @@ import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
 import ch.thoenluk.InputParser;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.UtMath;
 import ch.thoenluk.ut.UtParsing;
 import ch.thoenluk.ut.UtStrings;
@@ -20,14 +21,12 @@ import static ch.thoenluk.InputParser.STREAMED_LINES;
 
 @Day(5)
 @InputFormat(STREAMED_LINES)
+@ScalableInput(MathWorksheetGeneratinator.class)
 public class ThingsByNinetyDegreesRotatinator implements ChristmasSaver<Stream<String>> {
     @Override
     public String saveChristmas(final Stream<String> input) {
         final String[][] pieces = input
-                .map(s -> Arrays.stream(s.split(UtStrings.WHITE_SPACE_REGEX))
-                        .filter(split -> !split.isBlank())
-                        .toArray(String[]::new)
-                )
+                .map(UtStrings::splitWhitespaceSeparatedString)
                 .toArray(String[][]::new);
         final int numberOfArguments = pieces.length - 1;
         final int numberOfEquations = pieces[0].length;
@@ -3,6 +3,7 @@ package ch.thoenluk.solvers.WhyDontTheyUseTheHyperspaceRecursiveFlippingTiles;
 import ch.thoenluk.ChristmasSaver;
 import ch.thoenluk.Day;
 import ch.thoenluk.InputFormat;
+import ch.thoenluk.ScalableInput;
 import ch.thoenluk.ut.Position;
 
 import java.util.Comparator;
@@ -19,6 +20,7 @@ import static java.lang.Math.*;
 
 @Day(9)
 @InputFormat(MULTILINE_POSITION_LIST)
+@ScalableInput(RedTileGeneratinator.class)
 public class BasicGeometryCalculatinator implements ChristmasSaver<List<Position>> {
     @Override
     public String saveChristmas(List<Position> input) {
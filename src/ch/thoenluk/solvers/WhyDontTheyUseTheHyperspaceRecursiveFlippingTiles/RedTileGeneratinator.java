@@ -0,0 +1,40 @@
+package ch.thoenluk.solvers.WhyDontTheyUseTheHyperspaceRecursiveFlippingTiles;
+
+import ch.thoenluk.InputGenerator;
+
+import java.util.random.RandomGenerator;
+
+public class RedTileGeneratinator implements InputGenerator {
+    private static final int TOWERS = 250;
+    private static final int MAX_GAP = 400;
+    private static final int GROUND = 100_000;
+
+    /**
+     * The BasicGeometryCalculatinator wants a loop of red tiles in clockwise order, turning at every one of them.
+     * A skyline does that and can't cross itself: Up the left side, along the rooftops to the right, down the right side
+     * and back along the ground.
+     */
+    @Override
+    public String generate(final int scale, final RandomGenerator random) {
+        final StringBuilder input = new StringBuilder();
+        int x = random.nextInt(1, MAX_GAP);
+        int height = GROUND;
+        appendTile(input, x, GROUND);
+        for (int tower = 0; tower < TOWERS * scale; tower++) {
+            int nextHeight;
+            do {
+                nextHeight = random.nextInt(1, GROUND);
+            } while (nextHeight == height);
+            height = nextHeight;
+            appendTile(input, x, height);
+            x += random.nextInt(1, MAX_GAP);
+            appendTile(input, x, height);
+        }
+        appendTile(input, x, GROUND);
+        return input.toString();
+    }
+
+    private static void appendTile(final StringBuilder input, final int x, final int y) {
+        input.append(x).append(',').append(y).append('\n');
+    }
+}
@@ -13,4 +13,11 @@ public record Area(Position bottomLeft, Position topRight) {
                 && topRight.y() >= position.y()
                 && topRight.x() >= position.x();
     }
+
+    public boolean overlaps(Area other) {
+        return this.bottomLeft.y() <= other.topRight.y()
+                && this.bottomLeft.x() <= other.topRight.x()
+                && other.bottomLeft.y() <= this.topRight.y()
+                && other.bottomLeft.x() <= this.topRight.x();
+    }
 }
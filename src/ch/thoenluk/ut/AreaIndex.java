@@ -0,0 +1,184 @@
+package ch.thoenluk.ut;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Lots of Areas, indexed so asking which of them contain a position or overlap an area doesn't mean asking every one.
+ * A static R-tree, bulk loaded with Sort-Tile-Recursive: sort by x, cut into vertical slices, sort each slice by y,
+ * and pack runs of neighbours into nodes. Then the same again with the nodes, until one node's worth is left. Nodes of
+ * nearby areas end up with small boxes, so a query only walks down the few branches whose boxes it touches.
+ * <p>
+ * Built once from parsed input and never changed after, so it can be queried from as many threads as you like.
+ */
+public final class AreaIndex {
+    private static final int NODE_CAPACITY = 16;
+
+    private final Area[] areas;
+    // levels[0] is the areas themselves, every level after holds the boxes around runs of the one before, and the
+    // last is small enough to just look at all of it.
+    private final Level[] levels;
+
+    private AreaIndex(final Area[] areas, final Level[] levels) {
+        this.areas = areas;
+        this.levels = levels;
+    }
+
+    public static AreaIndex of(final Collection<Area> areas) {
+        final Area[] unsorted = areas.toArray(Area[]::new);
+        final Level leaves = new Level(
+                IntStream.range(0, unsorted.length).map(i -> unsorted[i].bottomLeft().y()).toArray(),
+                IntStream.range(0, unsorted.length).map(i -> unsorted[i].bottomLeft().x()).toArray(),
+                IntStream.range(0, unsorted.length).map(i -> unsorted[i].topRight().y()).toArray(),
+                IntStream.range(0, unsorted.length).map(i -> unsorted[i].topRight().x()).toArray(),
+                null,
+                null
+        );
+        final int[] leafOrder = tileOrder(leaves);
+        final Area[] sorted = IntStream.of(leafOrder).mapToObj(i -> unsorted[i]).toArray(Area[]::new);
+        final List<Level> levels = new ArrayList<>();
+        levels.add(leaves.reorder(leafOrder));
+        while (levels.getLast().size() > NODE_CAPACITY) {
+            final Level parents = levels.getLast().pack();
+            levels.add(parents.reorder(tileOrder(parents)));
+        }
+        return new AreaIndex(sorted, levels.toArray(Level[]::new));
+    }
+
+    public int size() {
+        return areas.length;
+    }
+
+    public List<Area> getAreasContaining(final Position position) {
+        final List<Area> containing = new ArrayList<>();
+        search(position.y(), position.x(), position.y(), position.x(), containing::add);
+        return containing;
+    }
+
+    public boolean anyContains(final Position position) {
+        return search(position.y(), position.x(), position.y(), position.x(), null);
+    }
+
+    public List<Area> getOverlappingAreas(final Area area) {
+        final List<Area> overlapping = new ArrayList<>();
+        search(area.bottomLeft().y(), area.bottomLeft().x(), area.topRight().y(), area.topRight().x(), overlapping::add);
+        return overlapping;
+    }
+
+    public boolean anyOverlaps(final Area area) {
+        return search(area.bottomLeft().y(), area.bottomLeft().x(), area.topRight().y(), area.topRight().x(), null);
+    }
+
+    // A position is just an area from itself to itself, and containing it is just overlapping that.
+    private boolean search(final int minY, final int minX, final int maxY, final int maxX, final Consumer<Area> found) {
+        if (areas.length == 0) {
+            return false;
+        }
+        final int top = levels.length - 1;
+        return search(top, 0, levels[top].size(), minY, minX, maxY, maxX, found);
+    }
+
+    /**
+     * Without anyone to tell about what we found, the first find is all we need.
+     * @return Whether anything was found.
+     */
+    private boolean search(final int level, final int from, final int to, final int minY, final int minX, final int maxY, final int maxX, final Consumer<Area> found) {
+        final Level entries = levels[level];
+        boolean foundAny = false;
+        for (int i = from; i < to; i++) {
+            if (!entries.overlaps(i, minY, minX, maxY, maxX)) {
+                continue;
+            }
+            if (level == 0) {
+                if (found == null) {
+                    return true;
+                }
+                found.accept(areas[i]);
+                foundAny = true;
+            } else if (search(level - 1, entries.childStarts[i], entries.childEnds[i], minY, minX, maxY, maxX, found)) {
+                if (found == null) {
+                    return true;
+                }
+                foundAny = true;
+            }
+        }
+        return foundAny;
+    }
+
+    /**
+     * @return The order Sort-Tile-Recursive wants the entries in: slices by x, each slice by y.
+     */
+    private static int[] tileOrder(final Level entries) {
+        final int nodes = Math.ceilDiv(entries.size(), NODE_CAPACITY);
+        final int sliceSize = (int) Math.ceil(Math.sqrt(nodes)) * NODE_CAPACITY;
+        final int[] byX = IntStream.range(0, entries.size())
+                .boxed()
+                .sorted(Comparator.comparingLong(entries::centreX))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        final int[] order = new int[entries.size()];
+        for (int sliceStart = 0; sliceStart < order.length; sliceStart += sliceSize) {
+            final int[] slice = IntStream.range(sliceStart, Math.min(order.length, sliceStart + sliceSize))
+                    .mapToObj(i -> byX[i])
+                    .sorted(Comparator.comparingLong(entries::centreY))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            System.arraycopy(slice, 0, order, sliceStart, slice.length);
+        }
+        return order;
+    }
+
+    // One level of the tree, one array per field. Leaves don't have children, so theirs are null.
+    private record Level(int[] minYs, int[] minXs, int[] maxYs, int[] maxXs, int[] childStarts, int[] childEnds) {
+        private int size() {
+            return minYs.length;
+        }
+
+        // Twice the centre, really, but it sorts the same and doesn't need dividing.
+        private long centreY(final int entry) {
+            return (long) minYs[entry] + maxYs[entry];
+        }
+
+        private long centreX(final int entry) {
+            return (long) minXs[entry] + maxXs[entry];
+        }
+
+        private boolean overlaps(final int entry, final int minY, final int minX, final int maxY, final int maxX) {
+            return minYs[entry] <= maxY && minY <= maxYs[entry] && minXs[entry] <= maxX && minX <= maxXs[entry];
+        }
+
+        private Level reorder(final int[] order) {
+            return new Level(
+                    IntStream.of(order).map(i -> minYs[i]).toArray(),
+                    IntStream.of(order).map(i -> minXs[i]).toArray(),
+                    IntStream.of(order).map(i -> maxYs[i]).toArray(),
+                    IntStream.of(order).map(i -> maxXs[i]).toArray(),
+                    childStarts == null ? null : IntStream.of(order).map(i -> childStarts[i]).toArray(),
+                    childEnds == null ? null : IntStream.of(order).map(i -> childEnds[i]).toArray()
+            );
+        }
+
+        /**
+         * @return One parent per run of NODE_CAPACITY entries, in order, each with the box around its run.
+         */
+        private Level pack() {
+            final int parents = Math.ceilDiv(size(), NODE_CAPACITY);
+            final Level packed = new Level(new int[parents], new int[parents], new int[parents], new int[parents], new int[parents], new int[parents]);
+            for (int parent = 0; parent < parents; parent++) {
+                final int start = parent * NODE_CAPACITY;
+                final int end = Math.min(size(), start + NODE_CAPACITY);
+                packed.minYs[parent] = IntStream.range(start, end).map(i -> minYs[i]).min().orElseThrow();
+                packed.minXs[parent] = IntStream.range(start, end).map(i -> minXs[i]).min().orElseThrow();
+                packed.maxYs[parent] = IntStream.range(start, end).map(i -> maxYs[i]).max().orElseThrow();
+                packed.maxXs[parent] = IntStream.range(start, end).map(i -> maxXs[i]).max().orElseThrow();
+                packed.childStarts[parent] = start;
+                packed.childEnds[parent] = end;
+            }
+            return packed;
+        }
+    }
+}
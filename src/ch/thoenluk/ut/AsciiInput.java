@@ -0,0 +1,149 @@
+package ch.thoenluk.ut;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * An input file as the bytes it is, rather than the UTF-16 String Java would like it to be. AoC inputs are ASCII, so
+ * every byte is one char and there's nothing to decode. Backed by a memory-mapped file, so reading the input costs no
+ * copy at all, and every line or other subSequence is a view into the same mapping.
+ * <p>
+ * Some inputs aren't ASCII after all, the Uppercaseinator's umlauts for one. Those are decoded as UTF-8 like a String
+ * would be, and kept as Latin-1, which is still one byte per char. The mapping is lost, but the answer is the same as
+ * the String's. Anything past Latin-1 can't be one byte per char, and is refused loudly rather than turned into '?'s.
+ * <p>
+ * Like any CharSequence, doesn't promise equals or hashCode. Use toString() for that, which is also where the one copy
+ * you can't avoid happens, if you need a String.
+ */
+public final class AsciiInput implements CharSequence {
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+    private static final char LAST_LATIN_1_CHAR = 0xFF;
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    private AsciiInput(final ByteBuffer bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static AsciiInput map(final File file) {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new AssertionError(String.format("%s is %s bytes. That's not an input, that's a cry for help.", file, size));
+            }
+            // The mapping outlives the channel, and is unmapped once nobody references the buffer anymore.
+            final ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (isAscii(bytes)) {
+                return new AsciiInput(bytes, 0, (int) size);
+            }
+            return of(Files.readString(file.toPath()));
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public static AsciiInput of(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > LAST_LATIN_1_CHAR) {
+                throw new AssertionError(String.format("'%s' at index %s doesn't fit in a byte. This input needs to stay a String.", string.charAt(i), i));
+            }
+        }
+        final byte[] latin1 = string.getBytes(StandardCharsets.ISO_8859_1);
+        return new AsciiInput(ByteBuffer.wrap(latin1).asReadOnlyBuffer(), 0, latin1.length);
+    }
+
+    // Eight bytes at a time: ASCII is exactly the bytes without their high bit.
+    private static boolean isAscii(final ByteBuffer bytes) {
+        final int length = bytes.limit();
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if ((bytes.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The bytes themselves, read-only, from the first of this input to its last.
+     */
+    public ByteBuffer asByteBuffer() {
+        return bytes.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    public byte byteAt(final int index) {
+        return bytes.get(offset + index);
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public AsciiInput subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) throw new IndexOutOfBoundsException(String.format("[%s, %s) of %s", start, end, length));
+        return new AsciiInput(bytes, offset + start, end - start);
+    }
+
+    public int indexOf(final byte wanted, final int fromIndex) {
+        for (int i = fromIndex; i < length; i++) {
+            if (byteAt(i) == wanted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same rules as String.lines(): splits on \n or \r\n, and a final line terminator doesn't make an empty last line.
+     */
+    public List<AsciiInput> lines() {
+        final List<AsciiInput> lines = new ArrayList<>();
+        int start = 0;
+        while (start < length) {
+            final int newline = indexOf(NEWLINE, start);
+            final int end = newline == -1 ? length : newline;
+            lines.add(subSequence(start, end > start && byteAt(end - 1) == CARRIAGE_RETURN ? end - 1 : end));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    public Stream<AsciiInput> streamLines() {
+        return lines().stream();
+    }
+
+    @Override
+    public String toString() {
+        final byte[] copy = new byte[length];
+        bytes.get(offset, copy);
+        // Latin-1 rather than ASCII, so Java can use the bytes as they are for its compact String.
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+}
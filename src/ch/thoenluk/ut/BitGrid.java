@@ -0,0 +1,262 @@
+package ch.thoenluk.ut;
+
+/**
+ * A grid of yes or no, one bit per cell, each row in its own run of longs. Bit i of word w in a row is column 64w + i.
+ * Where a Grid answers "what's here", a BitGrid answers "is there something here" for 64 cells at a time.
+ * <p>
+ * The point of it is counting neighbours. Instead of visiting every cell and asking eight times, the eight neighbour
+ * bits of 64 cells come from shifting the rows above, at and below, and get added up by a little adder circuit made of
+ * ANDs and XORs, one bit slice of the count per long. A few dozen word operations for 64 cells, for any grid that
+ * lives and dies by its neighbour counts.
+ * <p>
+ * Mutable, like a LongSet. Cells outside the grid are empty, and the bits past the last column always stay zero.
+ */
+public final class BitGrid {
+    // The row outside the grid: all empty.
+    private static final int NO_ROW = -1;
+
+    private final int height;
+    private final int width;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public BitGrid(final int height, final int width) {
+        if (height < 0 || width < 0) throw new AssertionError(String.format("A %sx%s grid is a lot of nothing.", height, width));
+        this.height = height;
+        this.width = width;
+        this.wordsPerRow = Math.ceilDiv(width, Long.SIZE);
+        this.words = new long[height * wordsPerRow];
+    }
+
+    /**
+     * @return A BitGrid the size of the grid, with every cell set that has the value.
+     */
+    public static BitGrid of(final Grid grid, final byte value) {
+        final BitGrid bits = new BitGrid(grid.height(), grid.width());
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.get(y, x) == value) {
+                    bits.set(y, x);
+                }
+            }
+        }
+        return bits;
+    }
+
+    public BitGrid copy() {
+        final BitGrid copy = new BitGrid(height, width);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean contains(final int y, final int x) {
+        return 0 <= y && y < height && 0 <= x && x < width;
+    }
+
+    public boolean get(final int y, final int x) {
+        return contains(y, x) && (words[wordIndex(y, x)] & (1L << x)) != 0;
+    }
+
+    public boolean get(final Position position) {
+        return get(position.y(), position.x());
+    }
+
+    public void set(final int y, final int x) {
+        checkContains(y, x);
+        words[wordIndex(y, x)] |= 1L << x;
+    }
+
+    public void clear(final int y, final int x) {
+        checkContains(y, x);
+        words[wordIndex(y, x)] &= ~(1L << x);
+    }
+
+    /**
+     * @return How many cells are set.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (final long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        for (final long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps only the cells that are also set in the other grid, which must be the same size.
+     */
+    public void retainAll(final BitGrid other) {
+        checkSameSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Clears every cell that is set in the other grid, which must be the same size.
+     */
+    public void removeAll(final BitGrid other) {
+        checkSameSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * @return Every cell, set or not, with fewer than k of its eight neighbours set.
+     */
+    public BitGrid withFewerNeighboursThan(final int k) {
+        return compareNeighbourCounts(k, true);
+    }
+
+    /**
+     * @return Every cell, set or not, with at least k of its eight neighbours set.
+     */
+    public BitGrid withAtLeastNeighbours(final int k) {
+        return compareNeighbourCounts(k, false);
+    }
+
+    /*
+     * Per word, the neighbour count of each of its 64 cells, as four bit slices: ones holds bit 0 of every count, eights
+     * bit 3. The eight one-bit neighbour inputs go through carry-save adders, three at a time becoming a sum and a
+     * carry, until a single bit is left in each slice. Then all 64 counts get compared with k at once.
+     */
+    private BitGrid compareNeighbourCounts(final int k, final boolean fewer) {
+        final BitGrid result = new BitGrid(height, width);
+        for (int y = 0; y < height; y++) {
+            final int above = y > 0 ? (y - 1) * wordsPerRow : NO_ROW;
+            final int row = y * wordsPerRow;
+            final int below = y + 1 < height ? (y + 1) * wordsPerRow : NO_ROW;
+            for (int w = 0; w < wordsPerRow; w++) {
+                final long n0 = west(above, w);
+                final long n1 = word(above, w);
+                final long n2 = east(above, w);
+                final long n3 = west(row, w);
+                final long n4 = east(row, w);
+                final long n5 = west(below, w);
+                final long n6 = word(below, w);
+                final long n7 = east(below, w);
+
+                final long onesA = n0 ^ n1 ^ n2;
+                final long twosA = (n0 & n1) | (n2 & (n0 ^ n1));
+                final long onesB = n3 ^ n4 ^ n5;
+                final long twosB = (n3 & n4) | (n5 & (n3 ^ n4));
+                final long onesC = n6 ^ n7;
+                final long twosC = n6 & n7;
+
+                final long ones = onesA ^ onesB ^ onesC;
+                final long twosD = (onesA & onesB) | (onesC & (onesA ^ onesB));
+                final long twosE = twosA ^ twosB ^ twosC;
+                final long foursA = (twosA & twosB) | (twosC & (twosA ^ twosB));
+                final long twos = twosE ^ twosD;
+                final long foursB = twosE & twosD;
+                final long fours = foursA ^ foursB;
+                final long eights = foursA & foursB;
+
+                final long lessThanK = lessThan(k, ones, twos, fours, eights);
+                result.words[row + w] = (fewer ? lessThanK : ~lessThanK) & validBits(w);
+            }
+        }
+        return result;
+    }
+
+    private long word(final int rowStart, final int w) {
+        return rowStart == NO_ROW ? 0 : words[rowStart + w];
+    }
+
+    // What each cell sees to its west is the cell one column left, so the row moves one bit up, carrying across words.
+    private long west(final int rowStart, final int w) {
+        return (word(rowStart, w) << 1) | (w > 0 ? word(rowStart, w - 1) >>> (Long.SIZE - 1) : 0);
+    }
+
+    private long east(final int rowStart, final int w) {
+        return (word(rowStart, w) >>> 1) | (w + 1 < wordsPerRow ? word(rowStart, w + 1) << (Long.SIZE - 1) : 0);
+    }
+
+    /**
+     * Compares all 64 bit-sliced counts with k at once, from the top bit down: a count is smaller once it has a 0 where
+     * k has a 1 and they agreed on everything above.
+     */
+    private static long lessThan(final int k, final long ones, final long twos, final long fours, final long eights) {
+        if (k <= 0) {
+            return 0;
+        }
+        if (k > 8) {
+            return -1L;
+        }
+        long lessThan = 0;
+        long equalSoFar = -1L;
+        if ((k & 8) != 0) {
+            lessThan |= equalSoFar & ~eights;
+            equalSoFar &= eights;
+        } else {
+            equalSoFar &= ~eights;
+        }
+        if ((k & 4) != 0) {
+            lessThan |= equalSoFar & ~fours;
+            equalSoFar &= fours;
+        } else {
+            equalSoFar &= ~fours;
+        }
+        if ((k & 2) != 0) {
+            lessThan |= equalSoFar & ~twos;
+            equalSoFar &= twos;
+        } else {
+            equalSoFar &= ~twos;
+        }
+        if ((k & 1) != 0) {
+            lessThan |= equalSoFar & ~ones;
+        }
+        return lessThan;
+    }
+
+    private long validBits(final int w) {
+        final int bitsInWord = Math.min(Long.SIZE, width - w * Long.SIZE);
+        return bitsInWord == Long.SIZE ? -1L : (1L << bitsInWord) - 1;
+    }
+
+    private int wordIndex(final int y, final int x) {
+        return y * wordsPerRow + (x >>> 6);
+    }
+
+    private void checkContains(final int y, final int x) {
+        if (!contains(y, x)) throw new IndexOutOfBoundsException(String.format("%s,%s is outside the %sx%s grid", y, x, height, width));
+    }
+
+    private void checkSameSize(final BitGrid other) {
+        if (height != other.height || width != other.width) {
+            throw new AssertionError(String.format("A %sx%s grid and a %sx%s grid don't line up.", height, width, other.height, other.width));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            if (y > 0) {
+                builder.append('\n');
+            }
+            for (int x = 0; x < width; x++) {
+                builder.append(get(y, x) ? '#' : '.');
+            }
+        }
+        return builder.toString();
+    }
+}
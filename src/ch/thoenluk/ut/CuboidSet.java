@@ -0,0 +1,408 @@
+package ch.thoenluk.ut;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A pile of ThreeDAreas, taken to mean every position inside any of them. Overlaps are fine and counted once.
+ * <p>
+ * Volumes are worked out by a sweep instead of by subtracting cuboids from each other until only disjoint fragments are
+ * left, which is how you turn ten thousand cuboids into ten million. The sweep cuts space into slabs along x wherever a
+ * cuboid starts or ends, and in each slab sweeps along y, keeping track of how much of z is covered with a segment tree
+ * over every z where a cuboid starts or ends. Nothing is ever split, and the cost only depends on how many cuboids are
+ * in each slab at once.
+ * <p>
+ * Immutable, and the sweep keeps all its state to itself, so a set can be shared and queried from many threads.
+ */
+public final class CuboidSet {
+    private static final CuboidSet EMPTY = new CuboidSet(List.of());
+
+    private final List<ThreeDArea> cuboids;
+
+    private CuboidSet(final List<ThreeDArea> cuboids) {
+        this.cuboids = cuboids;
+    }
+
+    public static CuboidSet of(final Collection<ThreeDArea> cuboids) {
+        return new CuboidSet(List.copyOf(cuboids));
+    }
+
+    public static CuboidSet of(final ThreeDArea... cuboids) {
+        return new CuboidSet(List.of(cuboids));
+    }
+
+    public List<ThreeDArea> cuboids() {
+        return cuboids;
+    }
+
+    /**
+     * @return How many positions are in at least one of the cuboids.
+     */
+    public long getVolume() {
+        return sweep(this, EMPTY).first();
+    }
+
+    /**
+     * @return How many positions are in this set, the other, or both.
+     */
+    public long getUnionVolume(final CuboidSet other) {
+        final Volumes volumes = sweep(this, other);
+        return volumes.first() + volumes.second() - volumes.both();
+    }
+
+    /**
+     * @return How many positions are in both this set and the other.
+     */
+    public long getIntersectionVolume(final CuboidSet other) {
+        return sweep(this, other).both();
+    }
+
+    /**
+     * @return How many positions are in this set but not in the other.
+     */
+    public long getDifferenceVolume(final CuboidSet other) {
+        final Volumes volumes = sweep(this, other);
+        return volumes.first() - volumes.both();
+    }
+
+    public boolean containsPosition(final ThreeDPosition position) {
+        for (final ThreeDArea cuboid : cuboids) {
+            if (cuboid.containsPosition(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Every position in the set exactly once, packed with PackedThreeDPosition, cuboid by cuboid in the order of
+     * getPositionsWithin. Lazy, so the set can be far bigger than what would fit in a list. Positions outside of what
+     * PackedThreeDPosition can hold throw when the iterator gets to them.
+     */
+    public PrimitiveIterator.OfLong positionIterator() {
+        return new PositionIterator();
+    }
+
+    public LongStream positions() {
+        return StreamSupport.longStream(
+                Spliterators.spliteratorUnknownSize(positionIterator(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+                false);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CuboidSet of %s cuboids", cuboids.size());
+    }
+
+    private record Volumes(long first, long second, long both) {}
+
+    private static Volumes sweep(final CuboidSet first, final CuboidSet second) {
+        final Box[] boxes = new Box[first.cuboids.size() + second.cuboids.size()];
+        for (int i = 0; i < boxes.length; i++) {
+            final boolean isFirst = i < first.cuboids.size();
+            boxes[i] = new Box(isFirst ? first.cuboids.get(i) : second.cuboids.get(i - first.cuboids.size()), isFirst);
+        }
+        if (boxes.length == 0) {
+            return new Volumes(0, 0, 0);
+        }
+        return new Sweep(boxes).run();
+    }
+
+    // A cuboid as half-open ranges, so a cuboid from 1 to 1 is [1, 2) and widths are just differences.
+    private record Box(long x0, long x1, long y0, long y1, long z0, long z1, boolean isFirst) {
+        private Box(final ThreeDArea cuboid, final boolean isFirst) {
+            this(cuboid.bottomLeft().x(), cuboid.topRight().x() + 1L,
+                    cuboid.bottomLeft().y(), cuboid.topRight().y() + 1L,
+                    cuboid.bottomLeft().z(), cuboid.topRight().z() + 1L,
+                    isFirst);
+        }
+    }
+
+    /*
+     * Every slab only needs the cuboids crossing it, so slabs don't need each other and get swept in parallel, each
+     * range of slabs with its own tree. y and z are looked up as ranks once up front, not once per slab.
+     */
+    private static final class Sweep {
+        private static final int MINIMUM_SLABS_PER_TASK = 64;
+
+        private final Box[] boxes;
+        private final long[] xs;
+        private final long[] ys;
+        private final long[] zs;
+        private final int[] yStarts;
+        private final int[] yEnds;
+        private final int[] zStarts;
+        private final int[] zEnds;
+        private final long[][] slabAreas;
+
+        private Sweep(final Box[] boxes) {
+            this.boxes = boxes.clone();
+            Arrays.sort(this.boxes, Comparator.comparingLong(Box::x0));
+            xs = boundaries(Box::x0, Box::x1);
+            ys = boundaries(Box::y0, Box::y1);
+            zs = boundaries(Box::z0, Box::z1);
+            yStarts = ranks(ys, Box::y0);
+            yEnds = ranks(ys, Box::y1);
+            zStarts = ranks(zs, Box::z0);
+            zEnds = ranks(zs, Box::z1);
+            slabAreas = new long[3][xs.length - 1];
+        }
+
+        private Volumes run() {
+            ParallelParsing.forEachRange(xs.length - 1, MINIMUM_SLABS_PER_TASK, this::sweepSlabs);
+            long firstVolume = 0;
+            long secondVolume = 0;
+            long bothVolume = 0;
+            for (int slab = 0; slab + 1 < xs.length; slab++) {
+                final long slabWidth = xs[slab + 1] - xs[slab];
+                firstVolume = Math.addExact(firstVolume, Math.multiplyExact(slabAreas[0][slab], slabWidth));
+                secondVolume = Math.addExact(secondVolume, Math.multiplyExact(slabAreas[1][slab], slabWidth));
+                bothVolume = Math.addExact(bothVolume, Math.multiplyExact(slabAreas[2][slab], slabWidth));
+            }
+            return new Volumes(firstVolume, secondVolume, bothVolume);
+        }
+
+        private void sweepSlabs(final int from, final int to) {
+            final CoverageTree tree = new CoverageTree(zs);
+            final int[] active = new int[boxes.length];
+            final long[] events = new long[2 * boxes.length];
+            int activeCount = 0;
+            int nextStart = 0;
+            // Boxes are sorted by start, so everything that started by now is a prefix. Which of those already ended
+            // gets sorted out by the first slab like any other.
+            while (nextStart < boxes.length && boxes[nextStart].x0 < xs[from]) {
+                active[activeCount++] = nextStart++;
+            }
+            for (int slab = from; slab < to; slab++) {
+                final long slabStart = xs[slab];
+                int kept = 0;
+                for (int i = 0; i < activeCount; i++) {
+                    if (boxes[active[i]].x1 > slabStart) {
+                        active[kept++] = active[i];
+                    }
+                }
+                activeCount = kept;
+                while (nextStart < boxes.length && boxes[nextStart].x0 == slabStart) {
+                    active[activeCount++] = nextStart++;
+                }
+                if (activeCount == 0) {
+                    continue;
+                }
+                // Events are (y rank, box, start or end) in one long, so sorting them is sorting a long[].
+                for (int i = 0; i < activeCount; i++) {
+                    final int box = active[i];
+                    events[2 * i] = ((long) yStarts[box] << 32) | ((long) box << 1) | 1;
+                    events[2 * i + 1] = ((long) yEnds[box] << 32) | ((long) box << 1);
+                }
+                Arrays.sort(events, 0, 2 * activeCount);
+                long first = 0;
+                long second = 0;
+                long both = 0;
+                for (int i = 0; i < 2 * activeCount; i++) {
+                    if (i > 0) {
+                        final long height = ys[(int) (events[i] >>> 32)] - ys[(int) (events[i - 1] >>> 32)];
+                        // Both run up to 2^32 when a cuboid spans every int, so a full square is one past what a long holds.
+                        first = Math.addExact(first, Math.multiplyExact(height, tree.firstLength()));
+                        second = Math.addExact(second, Math.multiplyExact(height, tree.secondLength()));
+                        both = Math.addExact(both, Math.multiplyExact(height, tree.bothLength()));
+                    }
+                    final int box = (int) ((events[i] & 0xFFFF_FFFFL) >>> 1);
+                    tree.update(zStarts[box], zEnds[box], boxes[box].isFirst, (events[i] & 1) == 1 ? 1 : -1);
+                }
+                slabAreas[0][slab] = first;
+                slabAreas[1][slab] = second;
+                slabAreas[2][slab] = both;
+            }
+        }
+
+        private long[] boundaries(final ToLongFunction<Box> start, final ToLongFunction<Box> end) {
+            return Arrays.stream(boxes)
+                    .flatMapToLong(box -> LongStream.of(start.applyAsLong(box), end.applyAsLong(box)))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        }
+
+        private int[] ranks(final long[] boundaries, final ToLongFunction<Box> coordinate) {
+            return Arrays.stream(boxes)
+                    .mapToInt(box -> Arrays.binarySearch(boundaries, coordinate.applyAsLong(box)))
+                    .toArray();
+        }
+    }
+
+    /*
+     * A segment tree over the gaps between z boundaries, counting how many cuboids of each set cover each node. A node
+     * knows how much of it is covered by the first set, the second, and both, looking only at itself and below. Because
+     * every cuboid that's added is later removed with the exact same range, counts never need pushing down.
+     */
+    private static final class CoverageTree {
+        private final long[] boundaries;
+        private final int[] firstCount;
+        private final int[] secondCount;
+        private final long[] firstLength;
+        private final long[] secondLength;
+        private final long[] bothLength;
+        private final int leaves;
+
+        private CoverageTree(final long[] boundaries) {
+            this.boundaries = boundaries;
+            this.leaves = Math.max(1, boundaries.length - 1);
+            final int nodes = 4 * leaves;
+            firstCount = new int[nodes];
+            secondCount = new int[nodes];
+            firstLength = new long[nodes];
+            secondLength = new long[nodes];
+            bothLength = new long[nodes];
+        }
+
+        private long firstLength() {
+            return firstLength[1];
+        }
+
+        private long secondLength() {
+            return secondLength[1];
+        }
+
+        private long bothLength() {
+            return bothLength[1];
+        }
+
+        private void update(final int updateFrom, final int updateTo, final boolean isFirst, final int delta) {
+            update(1, 0, leaves, updateFrom, updateTo, isFirst, delta);
+        }
+
+        private void update(final int node, final int from, final int to, final int updateFrom, final int updateTo, final boolean isFirst, final int delta) {
+            if (updateTo <= from || to <= updateFrom) {
+                return;
+            }
+            if (updateFrom <= from && to <= updateTo) {
+                if (isFirst) {
+                    firstCount[node] += delta;
+                } else {
+                    secondCount[node] += delta;
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                update(2 * node, from, middle, updateFrom, updateTo, isFirst, delta);
+                update(2 * node + 1, middle, to, updateFrom, updateTo, isFirst, delta);
+            }
+            recalculate(node, from, to);
+        }
+
+        private void recalculate(final int node, final int from, final int to) {
+            final long full = boundaries[to] - boundaries[from];
+            final boolean isLeaf = to - from == 1;
+            final long childrenFirst = isLeaf ? 0 : firstLength[2 * node] + firstLength[2 * node + 1];
+            final long childrenSecond = isLeaf ? 0 : secondLength[2 * node] + secondLength[2 * node + 1];
+            final long childrenBoth = isLeaf ? 0 : bothLength[2 * node] + bothLength[2 * node + 1];
+            final boolean coveredByFirst = firstCount[node] > 0;
+            final boolean coveredBySecond = secondCount[node] > 0;
+            firstLength[node] = coveredByFirst ? full : childrenFirst;
+            secondLength[node] = coveredBySecond ? full : childrenSecond;
+            if (coveredByFirst && coveredBySecond) {
+                bothLength[node] = full;
+            } else if (coveredByFirst) {
+                bothLength[node] = childrenSecond;
+            } else if (coveredBySecond) {
+                bothLength[node] = childrenFirst;
+            } else {
+                bothLength[node] = childrenBoth;
+            }
+        }
+    }
+
+    /*
+     * Walks each cuboid like getPositionsWithin, skipping whatever an earlier cuboid already handed out. When a position
+     * turns out to be in an earlier cuboid, we jump straight past that cuboid's end along z rather than asking again for
+     * every position of the overlap.
+     */
+    private final class PositionIterator implements PrimitiveIterator.OfLong {
+        private int cuboidIndex = -1;
+        private ThreeDArea cuboid;
+        private ThreeDArea[] earlierOverlapping;
+        private long x;
+        private long y;
+        private long z;
+        private boolean hasNext;
+
+        private PositionIterator() {
+            nextCuboid();
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            final long position = PackedThreeDPosition.pack((int) x, (int) y, (int) z);
+            z++;
+            findNext();
+            return position;
+        }
+
+        private void nextCuboid() {
+            cuboidIndex++;
+            if (cuboidIndex == cuboids.size()) {
+                cuboid = null;
+                return;
+            }
+            cuboid = cuboids.get(cuboidIndex);
+            earlierOverlapping = cuboids.subList(0, cuboidIndex).stream()
+                    .filter(cuboid::overlaps)
+                    .toArray(ThreeDArea[]::new);
+            x = cuboid.bottomLeft().x();
+            y = cuboid.bottomLeft().y();
+            z = cuboid.bottomLeft().z();
+        }
+
+        private void findNext() {
+            while (cuboid != null) {
+                if (z > cuboid.topRight().z()) {
+                    z = cuboid.bottomLeft().z();
+                    y++;
+                }
+                if (y > cuboid.topRight().y()) {
+                    y = cuboid.bottomLeft().y();
+                    x++;
+                }
+                if (x > cuboid.topRight().x()) {
+                    nextCuboid();
+                    continue;
+                }
+                final ThreeDArea cover = findEarlierCover();
+                if (cover == null) {
+                    hasNext = true;
+                    return;
+                }
+                z = cover.topRight().z() + 1L;
+            }
+            hasNext = false;
+        }
+
+        private ThreeDArea findEarlierCover() {
+            for (final ThreeDArea earlier : earlierOverlapping) {
+                if (earlier.bottomLeft().x() <= x && x <= earlier.topRight().x()
+                        && earlier.bottomLeft().y() <= y && y <= earlier.topRight().y()
+                        && earlier.bottomLeft().z() <= z && z <= earlier.topRight().z()) {
+                    return earlier;
+                }
+            }
+            return null;
+        }
+    }
+}
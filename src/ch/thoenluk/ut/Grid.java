@@ -0,0 +1,202 @@
+package ch.thoenluk.ut;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A rectangular grid of one byte per cell, row after row in a single array. What a Map<Position, Character> is for
+ * grids, minus the Position, the boxed Character, the map entry and the hashing, which is to say minus about 80 bytes
+ * per cell and a hash probe per lookup.
+ * <p>
+ * Immutable, so one Grid can be shared by every part and thread that wants it. Cells hold whatever the parser put there:
+ * the character itself for character grids, the digit's value for digit grids.
+ */
+public final class Grid {
+    private final byte[] cells;
+    private final int height;
+    private final int width;
+
+    private Grid(final byte[] cells, final int height, final int width) {
+        this.cells = cells;
+        this.height = height;
+        this.width = width;
+    }
+
+    /**
+     * @param cellParser Turns each character into what is stored for it. Must fit in a byte.
+     */
+    public static Grid fromLines(final List<? extends CharSequence> lines, final IntUnaryOperator cellParser) {
+        final int height = lines.size();
+        final int width = lines.isEmpty() ? 0 : lines.getFirst().length();
+        final byte[] cells = new byte[height * width];
+        // Every row has its own stretch of cells, so big grids can fill theirs in parallel without stepping on each other.
+        ParallelParsing.forEachRange(height, ParallelParsing.rowsPerRange(width), (from, to) -> {
+            for (int y = from; y < to; y++) {
+                final CharSequence line = lines.get(y);
+                if (line.length() != width) {
+                    throw new AssertionError(String.format("Line %s is %s long, but the first was %s. That's not a grid, that's a coastline.", y, line.length(), width));
+                }
+                for (int x = 0; x < width; x++) {
+                    cells[y * width + x] = (byte) cellParser.applyAsInt(line.charAt(x));
+                }
+            }
+        });
+        return new Grid(cells, height, width);
+    }
+
+    /**
+     * Reads what writeTo wrote, from wherever the buffer is.
+     */
+    public static Grid readFrom(final ByteBuffer buffer) {
+        final int height = buffer.getInt();
+        final int width = buffer.getInt();
+        if (height < 0 || width < 0 || (long) height * width > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format("A %sx%s grid doesn't fit in the %s bytes left", height, width, buffer.remaining()));
+        }
+        final byte[] cells = new byte[height * width];
+        buffer.get(cells);
+        return new Grid(cells, height, width);
+    }
+
+    public void writeTo(final ByteBuffer buffer) {
+        buffer.putInt(height).putInt(width).put(cells);
+    }
+
+    public int binarySize() {
+        return 2 * Integer.BYTES + cells.length;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean contains(final int y, final int x) {
+        return 0 <= y && y < height && 0 <= x && x < width;
+    }
+
+    public boolean contains(final Position position) {
+        return contains(position.y(), position.x());
+    }
+
+    public byte get(final int y, final int x) {
+        if (!contains(y, x)) throw new IndexOutOfBoundsException(String.format("%s,%s is outside the %sx%s grid", y, x, height, width));
+        return cells[y * width + x];
+    }
+
+    public byte get(final Position position) {
+        return get(position.y(), position.x());
+    }
+
+    /**
+     * @return The neighbours in the given directions that are inside the grid. The edges simply have fewer.
+     */
+    public List<Position> getNeighbours(final Position position, final Position.NeighbourDirection neighbourDirection) {
+        final List<Position> neighbours = new ArrayList<>(neighbourDirection.size());
+        position.forEachNeighbour(neighbourDirection, (y, x) -> {
+            if (contains(y, x)) {
+                neighbours.add(new Position(y, x));
+            }
+        });
+        return neighbours;
+    }
+
+    /**
+     * Same as counting getNeighbours with the value, without making a single Position along the way.
+     */
+    public int countNeighboursWithValue(final Position position, final Position.NeighbourDirection neighbourDirection, final byte value) {
+        int count = 0;
+        for (final Position direction : neighbourDirection.getDirections()) {
+            final int y = position.y() + direction.y();
+            final int x = position.x() + direction.x();
+            if (contains(y, x) && cells[y * width + x] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A view of the row, not a copy. The grid can't change, so neither can the view.
+     */
+    public CharSequence row(final int y) {
+        if (y < 0 || y >= height) throw new IndexOutOfBoundsException(y);
+        return new Line(y * width, 1, width);
+    }
+
+    public CharSequence column(final int x) {
+        if (x < 0 || x >= width) throw new IndexOutOfBoundsException(x);
+        return new Line(x, width, height);
+    }
+
+    public Stream<CharSequence> rows() {
+        return IntStream.range(0, height).mapToObj(this::row);
+    }
+
+    /**
+     * @return Every position in the grid, row by row, left to right.
+     */
+    public Stream<Position> positions() {
+        return IntStream.range(0, cells.length).mapToObj(this::toPosition);
+    }
+
+    public Stream<Position> findPositionsWithValue(final byte value) {
+        return IntStream.range(0, cells.length)
+                .filter(index -> cells[index] == value)
+                .mapToObj(this::toPosition);
+    }
+
+    private Position toPosition(final int index) {
+        return new Position(index / width, index % width);
+    }
+
+    @Override
+    public String toString() {
+        return String.join("\n", rows().toList());
+    }
+
+    private final class Line implements CharSequence {
+        private final int start;
+        private final int stride;
+        private final int length;
+
+        private Line(final int start, final int stride, final int length) {
+            this.start = start;
+            this.stride = stride;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+            return (char) (cells[start + index * stride] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > length || start > end) throw new IndexOutOfBoundsException(String.format("[%s, %s) of %s", start, end, length));
+            return new Line(this.start + start * stride, stride, end - start);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder line = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                line.append(charAt(i));
+            }
+            return line.toString();
+        }
+    }
+}
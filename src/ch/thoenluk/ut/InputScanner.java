@@ -0,0 +1,179 @@
+package ch.thoenluk.ut;
+
+/**
+ * Walks over an input once, front to back, and hands out numbers and fields as it goes. Numbers are read digit by
+ * digit straight from the characters, so there's no substring, no regex and no String to parse in between. Fields are
+ * subSequences, which for an AsciiInput are views and for a String is the one copy you asked for.
+ * <p>
+ * Whitespace is anything up to and including a space, so \n, \r and \t as well. That's what every input so far has
+ * meant by it, and it's cheaper to check than Character.isWhitespace.
+ * <p>
+ * Not thread safe, and doesn't try to be. Make one per input, or per line, they're cheap.
+ */
+public final class InputScanner {
+    private static final char NEWLINE = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final CharSequence input;
+    private final int length;
+    private int position;
+
+    public InputScanner(final CharSequence input) {
+        this.input = input;
+        this.length = input.length();
+    }
+
+    public boolean isAtEnd() {
+        return position >= length;
+    }
+
+    public char peek() {
+        return input.charAt(position);
+    }
+
+    public void skipWhitespace() {
+        while (position < length && isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * @return Whether there's anything but whitespace left. Skips the whitespace either way.
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        return !isAtEnd();
+    }
+
+    /**
+     * @return Whether the next character was the expected one, in which case it's skipped. Otherwise, nothing happens.
+     */
+    public boolean skipIf(final char expected) {
+        if (position < length && input.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    public void expect(final char expected) {
+        if (!skipIf(expected)) {
+            throw new AssertionError(String.format("Expected '%s' at %s, found %s", expected, position, describeCurrent()));
+        }
+    }
+
+    /**
+     * Skips one \n or \r\n, if that's what comes next.
+     */
+    public boolean skipLineBreak() {
+        if (position + 1 < length && input.charAt(position) == CARRIAGE_RETURN && input.charAt(position + 1) == NEWLINE) {
+            position += 2;
+            return true;
+        }
+        return skipIf(NEWLINE);
+    }
+
+    /**
+     * Reads an optionally negative decimal number, after skipping any whitespace in front of it.
+     */
+    public int nextInt() {
+        final long value = nextLong();
+        if (value != (int) value) {
+            throw new AssertionError(String.format("%s doesn't fit in an int, ending at %s", value, position));
+        }
+        return (int) value;
+    }
+
+    public long nextLong() {
+        skipWhitespace();
+        final boolean negative = skipIf('-');
+        final int start = position;
+        long value = 0;
+        while (position < length) {
+            final int digit = input.charAt(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            // Accumulate downwards like Long.parseLong, so Long.MIN_VALUE fits too.
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw new AssertionError(String.format("The number starting at %s doesn't fit in a long", start));
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == start) {
+            throw new AssertionError(String.format("Expected a number at %s, found %s", start, describeCurrent()));
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw new AssertionError(String.format("The number starting at %s doesn't fit in a long", start));
+            }
+            return -value;
+        }
+        return value;
+    }
+
+    /**
+     * @return Everything up to the next whitespace, after skipping any whitespace in front of it.
+     */
+    public CharSequence nextToken() {
+        skipWhitespace();
+        final int start = position;
+        while (position < length && !isWhitespace(input.charAt(position))) {
+            position++;
+        }
+        return input.subSequence(start, position);
+    }
+
+    /**
+     * @return Everything up to the delimiter or the end of the input. The delimiter itself is skipped.
+     */
+    public CharSequence nextField(final char delimiter) {
+        final int start = position;
+        while (position < length && input.charAt(position) != delimiter) {
+            position++;
+        }
+        final CharSequence field = input.subSequence(start, position);
+        skipIf(delimiter);
+        return field;
+    }
+
+    /**
+     * @return The rest of the current line, without its \n or \r\n. The line break itself is skipped.
+     */
+    public CharSequence nextLine() {
+        final int start = position;
+        while (position < length && input.charAt(position) != NEWLINE) {
+            position++;
+        }
+        final int end = position > start && input.charAt(position - 1) == CARRIAGE_RETURN && position < length ? position - 1 : position;
+        skipIf(NEWLINE);
+        return input.subSequence(start, end);
+    }
+
+    /**
+     * @return Everything up to the next empty line or the end of the input, with the line breaks inside it left as they
+     * are. The empty line is skipped. Any further empty lines are not, so they become empty blocks of their own.
+     */
+    public CharSequence nextBlock() {
+        final int start = position;
+        while (position < length) {
+            final int lineBreak = position;
+            if (skipLineBreak() && (isAtEnd() || skipLineBreak())) {
+                return input.subSequence(start, lineBreak);
+            }
+            if (position == lineBreak) {
+                position++;
+            }
+        }
+        return input.subSequence(start, position);
+    }
+
+    private String describeCurrent() {
+        return isAtEnd() ? "the end of the input" : "'" + peek() + "'";
+    }
+
+    private static boolean isWhitespace(final char character) {
+        return character <= ' ';
+    }
+}
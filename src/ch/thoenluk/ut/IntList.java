@@ -0,0 +1,56 @@
+package ch.thoenluk.ut;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * An ArrayList<Integer> that holds ints. For collecting numbers while you don't know how many there'll be yet, then
+ * handing them on as the int[] they should have been all along.
+ */
+public final class IntList {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(final int initialCapacity) {
+        elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(final int element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        elements[size++] = element;
+    }
+
+    public int get(final int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(String.format("%s of %s", index, size));
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
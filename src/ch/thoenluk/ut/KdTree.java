@@ -0,0 +1,323 @@
+package ch.thoenluk.ut;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A k-d tree over points given by index, for when "which points are closest" shouldn't mean comparing every point with
+ * every other. Built once in O(n log n), then answers k-nearest-neighbour queries and hands out all pairs of points
+ * closest first, computing only as many pairs as you actually take.
+ * <p>
+ * The tree is implicit: one array of point indices, where every range has its splitting point in the middle, the points
+ * closer to the origin along that level's axis to its left and the others to its right. No nodes, no pointers.
+ * <p>
+ * Distances are squared straight line distances. Points at the same distance are ordered by index, so every answer is
+ * exactly the answer sorting every candidate by (distance, index) would give. Immutable after building, so queries can
+ * come from as many threads as you like.
+ */
+public final class KdTree {
+    private static final int FIRST_NEIGHBOUR_BATCH = 8;
+
+    private final int[][] axes;
+    private final int[] tree;
+
+    private KdTree(final int[][] axes) {
+        this.axes = axes;
+        this.tree = new int[axes[0].length];
+        Arrays.setAll(tree, point -> point);
+        build(0, tree.length, 0);
+    }
+
+    public static KdTree of(final ThreeDPointCloud cloud) {
+        return new KdTree(cloud.axes());
+    }
+
+    /**
+     * A point's index is its index in the list.
+     */
+    public static KdTree of(final List<Position> positions) {
+        return new KdTree(new int[][] {
+                positions.stream().mapToInt(Position::y).toArray(),
+                positions.stream().mapToInt(Position::x).toArray()
+        });
+    }
+
+    public int size() {
+        return tree.length;
+    }
+
+    /**
+     * Throws if the distance would overflow, which takes coordinates in the billions. Same cheap check as the point
+     * cloud's: only when some difference is big enough to worry about does it add up again, carefully.
+     */
+    public long getSquaredDistance(final int point, final int otherPoint) {
+        long distance = 0;
+        long spread = 0;
+        for (final int[] axis : axes) {
+            final long difference = (long) axis[point] - axis[otherPoint];
+            distance += difference * difference;
+            spread |= Math.abs(difference);
+        }
+        if (spread >= ThreeDPointCloud.SAFE_DIFFERENCE) {
+            checkForOverflow(point, otherPoint);
+        }
+        return distance;
+    }
+
+    private void checkForOverflow(final int point, final int otherPoint) {
+        try {
+            long distance = 0;
+            for (final int[] axis : axes) {
+                final long difference = (long) axis[point] - axis[otherPoint];
+                distance = Math.addExact(distance, Math.multiplyExact(difference, difference));
+            }
+        } catch (final ArithmeticException e) {
+            throw new AssertionError(String.format("The squared distance between points %s and %s would overflow!", point, otherPoint), e);
+        }
+    }
+
+    /**
+     * @return The up to k points closest to the given one, not counting itself, closest first.
+     */
+    public int[] getNearestNeighbours(final int point, final int k) {
+        final NeighbourHeap heap = new NeighbourHeap(Math.min(k, size() - 1));
+        if (heap.capacity > 0) {
+            search(point, 0, tree.length, 0, heap);
+        }
+        return heap.toSortedArray();
+    }
+
+    /**
+     * Every pair of distinct points exactly once, closest first, as (smaller index, larger index). Ties are broken by
+     * the smaller index, then the larger, which is the order sorting streamPairwise by distance would give.
+     * <p>
+     * Lazy: each point only knows its next few nearest neighbours and asks the tree for more when it runs out, so
+     * taking the first thousand pairs of fifty thousand points costs about fifty thousand small queries instead of over
+     * a billion pairs.
+     */
+    public Stream<Pair> streamClosestPairs() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(new ClosestPairIterator(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+                false);
+    }
+
+    private void build(final int from, final int to, final int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        select(from, to, middle, axes[depth % axes.length]);
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    // Quickselect with a three-way partition, so even a range that's all the same coordinate is over in one pass.
+    private void select(int from, int to, final int target, final int[] axis) {
+        while (to - from > 1) {
+            final int pivot = axis[tree[(from + to) >>> 1]];
+            int lessEnd = from;
+            int greaterStart = to;
+            int i = from;
+            while (i < greaterStart) {
+                final int coordinate = axis[tree[i]];
+                if (coordinate < pivot) {
+                    swap(i++, lessEnd++);
+                } else if (coordinate > pivot) {
+                    swap(i, --greaterStart);
+                } else {
+                    i++;
+                }
+            }
+            if (target < lessEnd) {
+                to = lessEnd;
+            } else if (target >= greaterStart) {
+                from = greaterStart;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(final int i, final int j) {
+        final int swapped = tree[i];
+        tree[i] = tree[j];
+        tree[j] = swapped;
+    }
+
+    private void search(final int point, final int from, final int to, final int depth, final NeighbourHeap heap) {
+        if (from >= to) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        final int candidate = tree[middle];
+        if (candidate != point) {
+            heap.offer(candidate, getSquaredDistance(point, candidate));
+        }
+        final int[] axis = axes[depth % axes.length];
+        final long difference = (long) axis[point] - axis[candidate];
+        // Equal coordinates can be on either side, so they count as "our side" for both.
+        if (difference < 0) {
+            search(point, from, middle, depth + 1, heap);
+            if (heap.mightAccept(difference * difference)) {
+                search(point, middle + 1, to, depth + 1, heap);
+            }
+        } else {
+            search(point, middle + 1, to, depth + 1, heap);
+            if (heap.mightAccept(difference * difference)) {
+                search(point, from, middle, depth + 1, heap);
+            }
+        }
+    }
+
+    public record Pair(int first, int second, long squaredDistance) {}
+
+    // A max-heap of the best k found so far, worst on top, so deciding whether a candidate gets in is one comparison.
+    private static final class NeighbourHeap {
+        private final int capacity;
+        private final int[] points;
+        private final long[] distances;
+        private int size = 0;
+
+        private NeighbourHeap(final int capacity) {
+            this.capacity = Math.max(0, capacity);
+            this.points = new int[this.capacity];
+            this.distances = new long[this.capacity];
+        }
+
+        // <= rather than <, because something at exactly the worst distance can still win the tie on its index.
+        private boolean mightAccept(final long minimumDistance) {
+            return size < capacity || minimumDistance <= distances[0];
+        }
+
+        private void offer(final int point, final long distance) {
+            if (size < capacity) {
+                points[size] = point;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (isWorse(0, point, distance)) {
+                points[0] = point;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        private boolean isWorse(final int slot, final int point, final long distance) {
+            return distances[slot] > distance || (distances[slot] == distance && points[slot] > point);
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                final int parent = (slot - 1) / 2;
+                if (!isWorse(slot, points[parent], distances[parent])) {
+                    return;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                final int left = 2 * slot + 1;
+                if (left >= size) {
+                    return;
+                }
+                final int right = left + 1;
+                final int worseChild = right < size && isWorse(right, points[left], distances[left]) ? right : left;
+                if (!isWorse(worseChild, points[slot], distances[slot])) {
+                    return;
+                }
+                swap(slot, worseChild);
+                slot = worseChild;
+            }
+        }
+
+        private void swap(final int i, final int j) {
+            final int point = points[i];
+            points[i] = points[j];
+            points[j] = point;
+            final long distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+
+        private int[] toSortedArray() {
+            final int[] sorted = new int[size];
+            while (size > 0) {
+                sorted[size - 1] = points[0];
+                swap(0, --size);
+                siftDown(0);
+            }
+            return sorted;
+        }
+    }
+
+    /*
+     * Every point walks its own neighbours nearest first, and a priority queue merges all those walks. Each pair shows
+     * up twice, once from either end, and only the walk from the smaller index gets to hand it out. Because both copies
+     * sort the same, it doesn't matter which comes first.
+     */
+    private final class ClosestPairIterator implements Iterator<Pair> {
+        private final int[][] neighbours = new int[size()][];
+        private final int[] nextNeighbour = new int[size()];
+        private final PriorityQueue<Pair> candidates = new PriorityQueue<>(Math.max(1, size()),
+                Comparator.comparingLong(Pair::squaredDistance)
+                        .thenComparingInt(candidate -> Math.min(candidate.first(), candidate.second()))
+                        .thenComparingInt(candidate -> Math.max(candidate.first(), candidate.second())));
+        private Pair next;
+
+        private ClosestPairIterator() {
+            for (int point = 0; point < size(); point++) {
+                neighbours[point] = getNearestNeighbours(point, FIRST_NEIGHBOUR_BATCH);
+                offerNextCandidate(point);
+            }
+            next = findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Pair next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Pair result = next;
+            next = findNext();
+            return result;
+        }
+
+        private Pair findNext() {
+            while (!candidates.isEmpty()) {
+                final Pair candidate = candidates.poll();
+                offerNextCandidate(candidate.first());
+                if (candidate.first() < candidate.second()) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        private void offerNextCandidate(final int point) {
+            if (nextNeighbour[point] == neighbours[point].length) {
+                if (neighbours[point].length == size() - 1) {
+                    return;
+                }
+                // The nearest 2k start with the nearest k we already walked, so we just carry on where we were.
+                neighbours[point] = getNearestNeighbours(point, 2 * neighbours[point].length);
+            }
+            final int neighbour = neighbours[point][nextNeighbour[point]++];
+            candidates.add(new Pair(point, neighbour, getSquaredDistance(point, neighbour)));
+        }
+    }
+}
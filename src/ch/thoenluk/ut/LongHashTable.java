@@ -0,0 +1,179 @@
+package ch.thoenluk.ut;
+
+import java.util.stream.IntStream;
+
+/**
+ * The keys half of LongSet, LongLongMap and LongObjectMap: open addressing with linear probing over a power of two
+ * sized long[]. Subclasses keep their values in arrays of the same length, slot for slot, and get told when a slot moves.
+ * <p>
+ * 0 marks a free slot. The key 0 itself, which is also where Position 0,0 ends up, lives in an extra slot at the very
+ * end of the arrays, where no probe ever looks.
+ */
+abstract class LongHashTable {
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final long FREE = 0;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+
+    LongHashTable(final int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        keys = new long[capacity + 1];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of slots values need, the extra one for key 0 included.
+     */
+    final int slots() {
+        return keys.length;
+    }
+
+    final long keyAt(final int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @return The slot holding the key, or -1.
+     */
+    final int slotOf(final long key) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroSlot() : -1;
+        }
+        int slot = mix(key) & mask;
+        long candidate;
+        while ((candidate = keys[slot]) != FREE) {
+            if (candidate == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The slot holding the key if it was there already, or the bitwise complement of the slot it's in now.
+     */
+    final int insert(final long key) {
+        if (key == FREE) {
+            if (hasZeroKey) {
+                return zeroSlot();
+            }
+            hasZeroKey = true;
+            size++;
+            return ~zeroSlot();
+        }
+        if (2 * (size + 1) > mask + 1) {
+            grow();
+        }
+        int slot = mix(key) & mask;
+        long candidate;
+        while ((candidate = keys[slot]) != FREE) {
+            if (candidate == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        return ~slot;
+    }
+
+    /**
+     * Frees the slot, then shifts back whichever later keys would no longer be found across the gap. No tombstones, so
+     * removing doesn't make lookups slower over time.
+     */
+    final void removeSlot(final int slot) {
+        size--;
+        if (slot == zeroSlot()) {
+            hasZeroKey = false;
+            clearValue(slot);
+            return;
+        }
+        int gap = slot;
+        int current = slot;
+        long key;
+        while ((key = keys[current = (current + 1) & mask]) != FREE) {
+            final int home = mix(key) & mask;
+            // Move it if its home isn't cyclically between the gap and where it is now.
+            if (((current - home) & mask) >= ((current - gap) & mask)) {
+                keys[gap] = key;
+                moveValue(current, gap);
+                gap = current;
+            }
+        }
+        keys[gap] = FREE;
+        clearValue(gap);
+    }
+
+    final IntStream occupiedSlots() {
+        final IntStream probedSlots = IntStream.range(0, mask + 1).filter(slot -> keys[slot] != FREE);
+        return hasZeroKey ? IntStream.concat(probedSlots, IntStream.of(zeroSlot())) : probedSlots;
+    }
+
+    abstract void moveValue(int from, int to);
+
+    abstract void clearValue(int slot);
+
+    /**
+     * @param destinations For every old slot, the slot its value belongs in now, or -1 if it was free.
+     */
+    abstract void relocateValues(int[] destinations, int slots);
+
+    private int zeroSlot() {
+        return keys.length - 1;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int capacity = 2 * (mask + 1);
+        keys = new long[capacity + 1];
+        mask = capacity - 1;
+        final int[] destinations = new int[oldKeys.length];
+        for (int oldSlot = 0; oldSlot < oldKeys.length - 1; oldSlot++) {
+            final long key = oldKeys[oldSlot];
+            if (key == FREE) {
+                destinations[oldSlot] = -1;
+                continue;
+            }
+            int slot = mix(key) & mask;
+            while (keys[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            destinations[oldSlot] = slot;
+        }
+        destinations[oldKeys.length - 1] = hasZeroKey ? zeroSlot() : -1;
+        relocateValues(destinations, keys.length);
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        // Half full at most. Linear probing gets unpleasant quickly beyond that.
+        final int wanted = Math.max(MINIMUM_CAPACITY, 2 * expectedSize);
+        return Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    /**
+     * The finaliser of MurmurHash3. Packed positions differ mostly in their lowest bits and in the bits just above 32,
+     * and the mask only ever looks at the lowest, so every bit of the key has to end up in every bit of the hash.
+     * Package-private so tests can pick keys that collide on purpose.
+     */
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
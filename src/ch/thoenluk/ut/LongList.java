@@ -0,0 +1,56 @@
+package ch.thoenluk.ut;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * An ArrayList<Long> that holds longs. For collecting numbers while you don't know how many there'll be yet, then
+ * handing them on as the long[] they should have been all along.
+ */
+public final class LongList {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] elements;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(final int initialCapacity) {
+        elements = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void add(final long element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        elements[size++] = element;
+    }
+
+    public long get(final int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(String.format("%s of %s", index, size));
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
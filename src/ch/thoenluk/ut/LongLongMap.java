@@ -0,0 +1,82 @@
+package ch.thoenluk.ut;
+
+import java.util.stream.LongStream;
+
+/**
+ * A Map<Long, Long> without a single Long in it. There's no null to say a key is missing, so ask with a default.
+ */
+public final class LongLongMap extends LongHashTable {
+    private long[] values;
+
+    public LongLongMap() {
+        this(0);
+    }
+
+    public LongLongMap(final int expectedSize) {
+        super(expectedSize);
+        values = new long[slots()];
+    }
+
+    public boolean containsKey(final long key) {
+        return slotOf(key) >= 0;
+    }
+
+    public long getOrDefault(final long key, final long defaultValue) {
+        final int slot = slotOf(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public void put(final long key, final long value) {
+        final int slot = insert(key);
+        values[slot < 0 ? ~slot : slot] = value;
+    }
+
+    /**
+     * @return The new value, which is the old value plus the increment, or just the increment for a new key.
+     */
+    public long addTo(final long key, final long increment) {
+        final int slot = insert(key);
+        if (slot < 0) {
+            return values[~slot] = increment;
+        }
+        return values[slot] += increment;
+    }
+
+    public boolean remove(final long key) {
+        final int slot = slotOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    public LongStream keys() {
+        return occupiedSlots().mapToLong(this::keyAt);
+    }
+
+    public LongStream values() {
+        return occupiedSlots().mapToLong(slot -> values[slot]);
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(final int slot) {
+        values[slot] = 0;
+    }
+
+    @Override
+    void relocateValues(final int[] destinations, final int slots) {
+        final long[] relocated = new long[slots];
+        for (int slot = 0; slot < destinations.length; slot++) {
+            if (destinations[slot] >= 0) {
+                relocated[destinations[slot]] = values[slot];
+            }
+        }
+        values = relocated;
+    }
+}
@@ -0,0 +1,102 @@
+package ch.thoenluk.ut;
+
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A Map<Long, V> that keeps its keys unboxed. Like HashMap, a missing key gets you null, so don't store null.
+ */
+public final class LongObjectMap<V> extends LongHashTable {
+    private Object[] values;
+
+    public LongObjectMap() {
+        this(0);
+    }
+
+    public LongObjectMap(final int expectedSize) {
+        super(expectedSize);
+        values = new Object[slots()];
+    }
+
+    public boolean containsKey(final long key) {
+        return slotOf(key) >= 0;
+    }
+
+    public V get(final long key) {
+        final int slot = slotOf(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /**
+     * @return The value that was there before, or null.
+     */
+    public V put(final long key, final V value) {
+        final int slot = insert(key);
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        final V previous = valueAt(slot);
+        values[slot] = value;
+        return previous;
+    }
+
+    public V computeIfAbsent(final long key, final LongFunction<? extends V> computation) {
+        final int existing = slotOf(key);
+        if (existing >= 0) {
+            return valueAt(existing);
+        }
+        // Computed before inserting, so the computation may use this map without finding a half-made entry.
+        final V value = computation.apply(key);
+        // Insert first, look at values second: inserting may grow the table, and with it hand us a new values array.
+        final int slot = ~insert(key);
+        values[slot] = value;
+        return value;
+    }
+
+    public V remove(final long key) {
+        final int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        final V removed = valueAt(slot);
+        removeSlot(slot);
+        return removed;
+    }
+
+    public LongStream keys() {
+        return occupiedSlots().mapToLong(this::keyAt);
+    }
+
+    public Stream<V> values() {
+        return occupiedSlots().mapToObj(this::valueAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(final int slot) {
+        // Let go of it, or the garbage collector won't.
+        values[slot] = null;
+    }
+
+    @Override
+    void relocateValues(final int[] destinations, final int slots) {
+        final Object[] relocated = new Object[slots];
+        for (int slot = 0; slot < destinations.length; slot++) {
+            if (destinations[slot] >= 0) {
+                relocated[destinations[slot]] = values[slot];
+            }
+        }
+        values = relocated;
+    }
+}
@@ -0,0 +1,71 @@
+package ch.thoenluk.ut;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A Set<Long> without the Long, the entry, or the node. Meant for packed positions, but any long will do.
+ */
+public final class LongSet extends LongHashTable {
+    public LongSet() {
+        this(0);
+    }
+
+    public LongSet(final int expectedSize) {
+        super(expectedSize);
+    }
+
+    public static LongSet of(final LongStream values) {
+        final LongSet set = new LongSet();
+        values.forEach(set::add);
+        return set;
+    }
+
+    /**
+     * @return Whether the value was new.
+     */
+    public boolean add(final long value) {
+        return insert(value) < 0;
+    }
+
+    public void addAll(final LongSet other) {
+        other.forEach(this::add);
+    }
+
+    public boolean contains(final long value) {
+        return slotOf(value) >= 0;
+    }
+
+    /**
+     * @return Whether the value was there to remove.
+     */
+    public boolean remove(final long value) {
+        final int slot = slotOf(value);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    public void forEach(final LongConsumer action) {
+        occupiedSlots().forEach(slot -> action.accept(keyAt(slot)));
+    }
+
+    public LongStream stream() {
+        return occupiedSlots().mapToLong(this::keyAt);
+    }
+
+    public long[] toArray() {
+        return stream().toArray();
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {}
+
+    @Override
+    void clearValue(final int slot) {}
+
+    @Override
+    void relocateValues(final int[] destinations, final int slots) {}
+}
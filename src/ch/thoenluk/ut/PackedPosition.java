@@ -0,0 +1,34 @@
+package ch.thoenluk.ut;
+
+/**
+ * A Position as a single long: y in the upper 32 bits, x in the lower. Every int fits, so anything a Position can be, a
+ * packed one can be too, minus the object around it. Use these as keys in LongSet and friends, and turn them back into
+ * Positions wherever something outside the solver wants to see one.
+ */
+public final class PackedPosition {
+    private PackedPosition() {}
+
+    public static long pack(final int y, final int x) {
+        return ((long) y << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    public static long of(final Position position) {
+        return pack(position.y(), position.x());
+    }
+
+    public static int y(final long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int x(final long packed) {
+        return (int) packed;
+    }
+
+    public static Position toPosition(final long packed) {
+        return new Position(y(packed), x(packed));
+    }
+
+    public static long offsetBy(final long packed, final Position direction) {
+        return pack(y(packed) + direction.y(), x(packed) + direction.x());
+    }
+}
@@ -0,0 +1,51 @@
+package ch.thoenluk.ut;
+
+/**
+ * A ThreeDPosition as a single long: 21 bits each for x, y and z, x on top. That's -1,048,576 to 1,048,575 per axis,
+ * which is more space than any elf has needed so far. Coordinates outside of it are refused rather than wrapped, because
+ * two boxes quietly sharing a key is the kind of bug you find on the 25th.
+ */
+public final class PackedThreeDPosition {
+    private static final int BITS_PER_AXIS = 21;
+    private static final long AXIS_MASK = (1L << BITS_PER_AXIS) - 1;
+    private static final int MIN_COORDINATE = -(1 << (BITS_PER_AXIS - 1));
+    private static final int MAX_COORDINATE = (1 << (BITS_PER_AXIS - 1)) - 1;
+
+    private PackedThreeDPosition() {}
+
+    public static long pack(final int x, final int y, final int z) {
+        return (packAxis(x) << (2 * BITS_PER_AXIS)) | (packAxis(y) << BITS_PER_AXIS) | packAxis(z);
+    }
+
+    public static long of(final ThreeDPosition position) {
+        return pack(position.x(), position.y(), position.z());
+    }
+
+    public static int x(final long packed) {
+        return unpackAxis(packed >> (2 * BITS_PER_AXIS));
+    }
+
+    public static int y(final long packed) {
+        return unpackAxis(packed >> BITS_PER_AXIS);
+    }
+
+    public static int z(final long packed) {
+        return unpackAxis(packed);
+    }
+
+    public static ThreeDPosition toThreeDPosition(final long packed) {
+        return new ThreeDPosition(x(packed), y(packed), z(packed));
+    }
+
+    private static long packAxis(final int coordinate) {
+        if (coordinate < MIN_COORDINATE || coordinate > MAX_COORDINATE) {
+            throw new AssertionError(String.format("%s doesn't fit in %s bits. Big box.", coordinate, BITS_PER_AXIS));
+        }
+        return coordinate & AXIS_MASK;
+    }
+
+    private static int unpackAxis(final long bits) {
+        // Shift the axis to the top of the long and back, so its sign bit comes along.
+        return (int) ((bits << (Long.SIZE - BITS_PER_AXIS)) >> (Long.SIZE - BITS_PER_AXIS));
+    }
+}
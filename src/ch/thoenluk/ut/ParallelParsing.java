@@ -0,0 +1,137 @@
+package ch.thoenluk.ut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * For inputs big enough that parsing them on one core is the slow part. Cuts the input into chunks that end on a line
+ * break, parses the chunks in the common ForkJoinPool, and hands back the results in input order. Every chunk writes
+ * its own slot, so there's nothing to lock, and merging is just putting the slots together in order.
+ * <p>
+ * Below a megabyte, everything happens right here on the calling thread, exactly like before. Forking is not free, and
+ * the real inputs are usually far too small for it to pay off. The stress-test inputs are not.
+ */
+public final class ParallelParsing {
+    public static final int MINIMUM_CHUNK_LENGTH = 1 << 20;
+
+    private ParallelParsing() {}
+
+    /**
+     * @return What the chunk parser made of each chunk, in input order. Parse the whole input with the same parser and
+     * put the results together, and it must come to the same thing.
+     */
+    public static <R> List<R> parseLineChunks(final CharSequence input, final Function<CharSequence, R> chunkParser) {
+        final List<CharSequence> chunks = splitIntoLineChunks(input, MINIMUM_CHUNK_LENGTH);
+        if (chunks.size() == 1) {
+            return List.of(chunkParser.apply(chunks.getFirst()));
+        }
+        final Object[] results = new Object[chunks.size()];
+        forEachRange(chunks.size(), 1, (from, to) -> {
+            for (int chunk = from; chunk < to; chunk++) {
+                results[chunk] = chunkParser.apply(chunks.get(chunk));
+            }
+        });
+        @SuppressWarnings("unchecked")
+        final List<R> orderedResults = (List<R>) Arrays.asList(results);
+        return orderedResults;
+    }
+
+    /**
+     * Runs the action over [0, size) in ranges of at least the minimum size, in parallel if there's more than one range.
+     * The ranges don't overlap, so actions that only write to their own indices need no locking.
+     */
+    public static void forEachRange(final int size, final int minimumRangeSize, final RangeAction action) {
+        if (size <= minimumRangeSize) {
+            action.accept(0, size);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(0, size, Math.max(1, minimumRangeSize), action));
+    }
+
+    /**
+     * @return How many rows of the given width make a chunk worth its own task.
+     */
+    public static int rowsPerRange(final int width) {
+        return Math.max(1, MINIMUM_CHUNK_LENGTH / Math.max(1, width));
+    }
+
+    static List<CharSequence> splitIntoLineChunks(final CharSequence input, final int chunkLength) {
+        final List<CharSequence> chunks = new ArrayList<>();
+        final int length = input.length();
+        int start = 0;
+        while (length - start > chunkLength) {
+            int end = start + chunkLength;
+            while (end < length && input.charAt(end - 1) != '\n') {
+                end++;
+            }
+            chunks.add(input.subSequence(start, end));
+            start = end;
+        }
+        if (start < length || chunks.isEmpty()) {
+            chunks.add(input.subSequence(start, length));
+        }
+        return chunks;
+    }
+
+    public static int[] concatenateInts(final List<int[]> arrays) {
+        final int[] result = new int[arrays.stream().mapToInt(array -> array.length).sum()];
+        int offset = 0;
+        for (final int[] array : arrays) {
+            System.arraycopy(array, 0, result, offset, array.length);
+            offset += array.length;
+        }
+        return result;
+    }
+
+    public static long[] concatenateLongs(final List<long[]> arrays) {
+        final long[] result = new long[arrays.stream().mapToInt(array -> array.length).sum()];
+        int offset = 0;
+        for (final long[] array : arrays) {
+            System.arraycopy(array, 0, result, offset, array.length);
+            offset += array.length;
+        }
+        return result;
+    }
+
+    public static <T> List<T> concatenateLists(final List<List<T>> lists) {
+        if (lists.size() == 1) {
+            return lists.getFirst();
+        }
+        final List<T> result = new ArrayList<>(lists.stream().mapToInt(List::size).sum());
+        lists.forEach(result::addAll);
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface RangeAction {
+        void accept(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int minimumRangeSize;
+        private final RangeAction action;
+
+        private RangeTask(final int from, final int to, final int minimumRangeSize, final RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.minimumRangeSize = minimumRangeSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minimumRangeSize) {
+                action.accept(from, to);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, minimumRangeSize, action), new RangeTask(middle, to, minimumRangeSize, action));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ch.thoenluk.ut;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The caches behind UtParsing's cached methods, for as long as one challenge runs and not a moment longer. Bind one
+ * with within(), and every cached parse on that thread, and on any thread forked from it in a StructuredTaskScope, goes
+ * through it. Once within() returns, nothing references the cache anymore and the garbage collector gets every string.
+ * <p>
+ * Outside of within(), nothing is cached at all. Parsing a number is cheap. Keeping every number of every day alive
+ * forever is not.
+ * <p>
+ * Also counts hits and misses, because a cache that's never hit is just a slower way to parse.
+ */
+public final class ParsingCache {
+    private static final ScopedValue<ParsingCache> CURRENT = ScopedValue.newInstance();
+
+    private final Cache<String, Integer> integers = new Cache<>("ints");
+    private final Cache<String, Long> longs = new Cache<>("longs");
+    private final Cache<Character, Integer> numericValues = new Cache<>("numeric values");
+    // The radix caches used to share with the decimal ones, so "10" in hex was 16 from then on, also in decimal.
+    private final Map<Integer, Cache<String, Integer>> integersByRadix = new ConcurrentHashMap<>();
+    private final Map<Integer, Cache<String, Long>> longsByRadix = new ConcurrentHashMap<>();
+
+    public <T> T within(final Supplier<T> action) {
+        return ScopedValue.where(CURRENT, this).call(action::get);
+    }
+
+    static int parseInt(final String stringRepresentation) {
+        return CURRENT.isBound()
+                ? CURRENT.get().integers.get(stringRepresentation, Integer::parseInt)
+                : Integer.parseInt(stringRepresentation);
+    }
+
+    static int parseInt(final String stringRepresentation, final int radix) {
+        return CURRENT.isBound()
+                ? CURRENT.get().integersByRadix.computeIfAbsent(radix, _ -> new Cache<>("ints in radix " + radix))
+                        .get(stringRepresentation, string -> Integer.parseInt(string, radix))
+                : Integer.parseInt(stringRepresentation, radix);
+    }
+
+    static long parseLong(final String stringRepresentation) {
+        return CURRENT.isBound()
+                ? CURRENT.get().longs.get(stringRepresentation, Long::parseLong)
+                : Long.parseLong(stringRepresentation);
+    }
+
+    static long parseLong(final String stringRepresentation, final int radix) {
+        return CURRENT.isBound()
+                ? CURRENT.get().longsByRadix.computeIfAbsent(radix, _ -> new Cache<>("longs in radix " + radix))
+                        .get(stringRepresentation, string -> Long.parseLong(string, radix))
+                : Long.parseLong(stringRepresentation, radix);
+    }
+
+    static int getNumericValue(final char charRepresentation) {
+        return CURRENT.isBound()
+                ? CURRENT.get().numericValues.get(charRepresentation, Character::getNumericValue)
+                : Character.getNumericValue(charRepresentation);
+    }
+
+    /**
+     * @return The statistics of every cache that was used at all.
+     */
+    public List<Statistics> statistics() {
+        final List<Cache<?, ?>> caches = new ArrayList<>(List.of(integers, longs, numericValues));
+        caches.addAll(integersByRadix.values());
+        caches.addAll(longsByRadix.values());
+        return caches.stream()
+                .map(Cache::statistics)
+                .filter(statistics -> statistics.lookups() > 0)
+                .toList();
+    }
+
+    @Override
+    public String toString() {
+        final List<Statistics> statistics = statistics();
+        if (statistics.isEmpty()) {
+            return "unused";
+        }
+        return statistics.stream()
+                .map(Statistics::toString)
+                .collect(Collectors.joining("; "));
+    }
+
+    public record Statistics(String name, long hits, long misses, int size) {
+        public long lookups() {
+            return hits + misses;
+        }
+
+        public double hitRate() {
+            return lookups() == 0 ? 0 : (double) hits / lookups();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f%% of %s lookups hit, %s cached", name, 100 * hitRate(), lookups(), size);
+        }
+    }
+
+    private static final class Cache<K, V> {
+        private final String name;
+        private final Map<K, V> values = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Cache(final String name) {
+            this.name = name;
+        }
+
+        private V get(final K key, final Function<K, V> computation) {
+            // A plain get first, because computeIfAbsent may lock the bin even when the value is already there.
+            final V cached = values.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            // Two threads missing on the same key at once both count a miss. It's a metric, not an invoice.
+            misses.increment();
+            return values.computeIfAbsent(key, computation);
+        }
+
+        private Statistics statistics() {
+            return new Statistics(name, hits.sum(), misses.sum(), values.size());
+        }
+    }
+}
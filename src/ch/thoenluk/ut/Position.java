@@ -1,6 +1,6 @@
 package ch.thoenluk.ut;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -30,14 +30,21 @@ public record Position(int y, int x) {
             UP, LEFT
     );
 
-    private static final Map<Position, List<Position>> NEIGHBOUR_CACHE = new HashMap<>();
-
 
     //---- Static Methods
 
     public static Position fromString(final String description) {
-        final String[] coordinates = UtStrings.splitCommaSeparatedString(description);
-        return new Position(UtParsing.cachedParseInt(coordinates[1]), UtParsing.cachedParseInt(coordinates[0]));
+        return fromScanner(new InputScanner(description));
+    }
+
+    /**
+     * Reads x,y from wherever the scanner is. Note the order, because the inputs don't care what I'd prefer.
+     */
+    public static Position fromScanner(final InputScanner scanner) {
+        final int x = scanner.nextInt();
+        scanner.skipWhitespace();
+        scanner.expect(',');
+        return new Position(scanner.nextInt(), x);
     }
 
 
@@ -74,13 +81,37 @@ public record Position(int y, int x) {
     }
 
     public List<Position> getNeighbours(final NeighbourDirection neighbourDirection) {
-        final List<Position> neighbours = new LinkedList<>();
-        for (final Position direction : neighbourDirection.getDirections()) {
-            neighbours.add(offsetBy(direction));
-        }
+        final List<Position> neighbours = new ArrayList<>(neighbourDirection.size());
+        forEachNeighbour(neighbourDirection, (y, x) -> neighbours.add(new Position(y, x)));
         return neighbours;
     }
 
+    /**
+     * Calls the visitor with the coordinates of every neighbour in the given directions, in getNeighbours order. Makes
+     * no Position, no list and no iterator to do so.
+     */
+    public void forEachNeighbour(final NeighbourDirection neighbourDirection, final NeighbourVisitor visitor) {
+        final int[] yOffsets = neighbourDirection.yOffsets;
+        final int[] xOffsets = neighbourDirection.xOffsets;
+        for (int i = 0; i < yOffsets.length; i++) {
+            visitor.visit(y + yOffsets[i], x + xOffsets[i]);
+        }
+    }
+
+    /**
+     * Writes the neighbours in the given directions into the buffer as packed positions, in getNeighbours order.
+     * Bring a buffer of at least NeighbourDirection.size(), and reuse it.
+     * @return How many were written, which is always NeighbourDirection.size().
+     */
+    public int fillNeighbours(final NeighbourDirection neighbourDirection, final long[] buffer) {
+        final int[] yOffsets = neighbourDirection.yOffsets;
+        final int[] xOffsets = neighbourDirection.xOffsets;
+        for (int i = 0; i < yOffsets.length; i++) {
+            buffer[i] = PackedPosition.pack(y + yOffsets[i], x + xOffsets[i]);
+        }
+        return yOffsets.length;
+    }
+
     public List<Position> getCardinalNeighbours() {
         return getNeighbours(NeighbourDirection.CARDINAL);
     }
@@ -89,8 +120,12 @@ public record Position(int y, int x) {
         return getNeighbours(NeighbourDirection.DIAGONAL);
     }
 
+    /**
+     * Made fresh every time. Eight positions are cheaper to make than to look up in any cache that stays bounded on a
+     * 141x141 grid, and whoever can't afford them has forEachNeighbour and fillNeighbours.
+     */
     public List<Position> getOmnidirectionalNeighbours() {
-        return NEIGHBOUR_CACHE.computeIfAbsent(this, _ -> getNeighbours(NeighbourDirection.OMNIDIRECTIONAL));
+        return getNeighbours(NeighbourDirection.OMNIDIRECTIONAL);
     }
 
     public Position invert() {
@@ -101,8 +136,13 @@ public record Position(int y, int x) {
         return new Position(y() * multiplier, x() * multiplier);
     }
 
+    /**
+     * Always a new Position, like everything else here. Interning them was tried and dropped: the grid days that would
+     * have asked for a table of canonical positions keep packed longs or bits instead, and day 9's coordinates run into
+     * the hundreds of thousands, so no solver was left to use it.
+     */
     public Position offsetBy(final int y, final int x) {
-        return offsetBy(new Position(y, x));
+        return new Position(this.y + y, this.x + x);
     }
 
     public Position offsetBy(final Position offset) {
@@ -148,7 +188,7 @@ public record Position(int y, int x) {
         );
 
         for (int i = 0; i <= getRoleplayingDistanceFrom(other); i++) {
-            path.add(this.offsetBy(new Position(direction.y() * i, direction.x() * i)));
+            path.add(this.offsetByDistance(direction, i));
         }
 
         return path;
@@ -224,13 +264,26 @@ public record Position(int y, int x) {
         ));
 
         private final List<Position> directions;
+        private final int[] yOffsets;
+        private final int[] xOffsets;
 
         /* private */ NeighbourDirection(final List<Position> directions) {
             this.directions = directions;
+            this.yOffsets = directions.stream().mapToInt(Position::y).toArray();
+            this.xOffsets = directions.stream().mapToInt(Position::x).toArray();
         }
 
         public List<Position> getDirections() {
             return directions;
         }
+
+        public int size() {
+            return directions.size();
+        }
+    }
+
+    @FunctionalInterface
+    public interface NeighbourVisitor {
+        void visit(int y, int x);
     }
-}
\ No newline at end of file
+}
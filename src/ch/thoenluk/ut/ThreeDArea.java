@@ -1,5 +1,6 @@
 package ch.thoenluk.ut;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -186,8 +187,11 @@ public record ThreeDArea(ThreeDPosition bottomLeft, ThreeDPosition topRight) {
         return pieces;
     }
 
+    /**
+     * Every position, as a list you can hold in your hands. For anything you can't, use CuboidSet.positionIterator.
+     */
     public List<ThreeDPosition> getPositionsWithin() {
-        List<ThreeDPosition> positions = new LinkedList<>();
+        List<ThreeDPosition> positions = new ArrayList<>(Math.toIntExact(getVolume()));
 
         for (int x = bottomLeft().x(); x <= topRight().x(); x++) {
             for (int y = bottomLeft().y(); y <= topRight().y(); y++) {
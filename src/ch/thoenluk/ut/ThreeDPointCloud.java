@@ -0,0 +1,271 @@
+package ch.thoenluk.ut;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A List<ThreeDPosition> turned inside out: one array per axis, and a point is just its index into them. Comparing
+ * every point with every other walks three int[]s front to back, instead of following a reference to a record for each
+ * coordinate of each point. That's friendlier to the cache, and the kind of loop the JIT knows how to vectorise.
+ * <p>
+ * Immutable, so it can be shared like a Grid.
+ */
+public final class ThreeDPointCloud {
+    // With every coordinate difference below this, three squares can't add up to more than a long holds.
+    static final long SAFE_DIFFERENCE = 1L << 30;
+    // VectorSquaredDistances lives in the vector source root, so it's only there if someone compiled that with the
+    // incubator module. Looked up by name rather than named, or src wouldn't compile without the module either.
+    // Static final handles are constants to the JIT, so calling through them costs about as much as a direct call.
+    // Both null means the plain loop does everything.
+    private static final MethodHandle VECTOR_LOOP_BOUND = findVectorKernel("loopBound", MethodType.methodType(int.class, int.class));
+    private static final MethodHandle VECTOR_FILL = findVectorKernel("fill", MethodType.methodType(long.class,
+            int[].class, int[].class, int[].class, int.class, int.class, int.class, long[].class, int.class));
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+
+    private ThreeDPointCloud(final int[] xs, final int[] ys, final int[] zs) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+    }
+
+    public static ThreeDPointCloud fromScanner(final InputScanner scanner) {
+        final IntList xs = new IntList();
+        final IntList ys = new IntList();
+        final IntList zs = new IntList();
+        while (scanner.hasNext()) {
+            xs.add(scanner.nextInt());
+            scanner.skipWhitespace();
+            scanner.expect(',');
+            ys.add(scanner.nextInt());
+            scanner.skipWhitespace();
+            scanner.expect(',');
+            zs.add(scanner.nextInt());
+        }
+        return new ThreeDPointCloud(xs.toArray(), ys.toArray(), zs.toArray());
+    }
+
+    public static ThreeDPointCloud of(final ThreeDPosition... positions) {
+        return new ThreeDPointCloud(
+                Arrays.stream(positions).mapToInt(ThreeDPosition::x).toArray(),
+                Arrays.stream(positions).mapToInt(ThreeDPosition::y).toArray(),
+                Arrays.stream(positions).mapToInt(ThreeDPosition::z).toArray()
+        );
+    }
+
+    /**
+     * @return All the points of the first cloud, then all of the second, and so on.
+     */
+    public static ThreeDPointCloud concatenate(final List<ThreeDPointCloud> clouds) {
+        if (clouds.size() == 1) {
+            return clouds.getFirst();
+        }
+        return new ThreeDPointCloud(
+                ParallelParsing.concatenateInts(clouds.stream().map(cloud -> cloud.xs).toList()),
+                ParallelParsing.concatenateInts(clouds.stream().map(cloud -> cloud.ys).toList()),
+                ParallelParsing.concatenateInts(clouds.stream().map(cloud -> cloud.zs).toList())
+        );
+    }
+
+    /**
+     * Reads what writeTo wrote, from wherever the buffer is.
+     */
+    public static ThreeDPointCloud readFrom(final ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        if (size < 0 || 3L * size * Integer.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format("%s points don't fit in the %s bytes left", size, buffer.remaining()));
+        }
+        final int[] xs = new int[size];
+        final int[] ys = new int[size];
+        final int[] zs = new int[size];
+        buffer.asIntBuffer().get(xs).get(ys).get(zs);
+        buffer.position(buffer.position() + 3 * size * Integer.BYTES);
+        return new ThreeDPointCloud(xs, ys, zs);
+    }
+
+    public void writeTo(final ByteBuffer buffer) {
+        buffer.putInt(size());
+        buffer.asIntBuffer().put(xs).put(ys).put(zs);
+        buffer.position(buffer.position() + 3 * size() * Integer.BYTES);
+    }
+
+    public int binarySize() {
+        return Integer.BYTES + 3 * size() * Integer.BYTES;
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    // The arrays themselves, for the KdTree to read. Nobody writes to them, so sharing is fine.
+    int[][] axes() {
+        return new int[][] {xs, ys, zs};
+    }
+
+    public int x(final int point) {
+        return xs[point];
+    }
+
+    public int y(final int point) {
+        return ys[point];
+    }
+
+    public int z(final int point) {
+        return zs[point];
+    }
+
+    public ThreeDPosition get(final int point) {
+        return new ThreeDPosition(xs[point], ys[point], zs[point]);
+    }
+
+    /**
+     * Same as getSquaredStraightLineDistanceFrom on the two points, minus the two records and the stream of functions.
+     * Each difference fits in a long, but three squares of them only do while the coordinates stay out of the billions,
+     * so for points that far apart it checks properly, and throws if the distance would overflow.
+     */
+    public long getSquaredStraightLineDistance(final int point, final int otherPoint) {
+        final long dx = (long) xs[point] - xs[otherPoint];
+        final long dy = (long) ys[point] - ys[otherPoint];
+        final long dz = (long) zs[point] - zs[otherPoint];
+        if ((Math.abs(dx) | Math.abs(dy) | Math.abs(dz)) >= SAFE_DIFFERENCE) {
+            checkForOverflow(point, otherPoint, otherPoint + 1);
+        }
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * The squared distances from one point to each of the points from (inclusive) to to (exclusive), written to the
+     * start of the array. With the vector source root and --add-modules jdk.incubator.vector, VectorSquaredDistances
+     * does all but the last few, a vector at a time. Without, one plain loop over the three arrays does it all, with no calls and no branches in it,
+     * which is the best chance the JIT has to vectorise it on its own.
+     * <p>
+     * Instead of checking every element for overflow, the loop ORs together the size of every difference. Only if that
+     * ends up too big for the result to be safe does anyone check properly, and it throws if something did overflow.
+     */
+    public void getSquaredStraightLineDistances(final int point, final int from, final int to, final long[] distances) {
+        if (fillSquaredStraightLineDistances(point, from, to, distances, 0) >= SAFE_DIFFERENCE) {
+            checkForOverflow(point, from, to);
+        }
+    }
+
+    /**
+     * The squared distances between every row point in [rowFrom, rowTo) and every column point in [columnFrom,
+     * columnTo), row by row, so the distance between row r and column c ends up at
+     * (r - rowFrom) * (columnTo - columnFrom) + (c - columnFrom). Same overflow check as for a single row.
+     */
+    public void getSquaredStraightLineDistances(final int rowFrom, final int rowTo, final int columnFrom, final int columnTo, final long[] distances) {
+        final int rowLength = columnTo - columnFrom;
+        long spread = 0;
+        for (int row = rowFrom; row < rowTo; row++) {
+            spread |= fillSquaredStraightLineDistances(row, columnFrom, columnTo, distances, (row - rowFrom) * rowLength);
+        }
+        if (spread >= SAFE_DIFFERENCE) {
+            for (int row = rowFrom; row < rowTo; row++) {
+                checkForOverflow(row, columnFrom, columnTo);
+            }
+        }
+    }
+
+    /**
+     * @return Every absolute coordinate difference ORed together, which is at least as big as the biggest of them.
+     */
+    private long fillSquaredStraightLineDistances(final int point, final int from, final int to, final long[] distances, final int offset) {
+        if (VECTOR_FILL == null) {
+            return fillSquaredStraightLineDistancesOneByOne(point, from, to, distances, offset);
+        }
+        try {
+            final int vectorised = from + (int) VECTOR_LOOP_BOUND.invokeExact(to - from);
+            return (long) VECTOR_FILL.invokeExact(xs, ys, zs, point, from, vectorised, distances, offset)
+                    | fillSquaredStraightLineDistancesOneByOne(point, vectorised, to, distances, offset + vectorised - from);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Package-private so the benchmark can hold it against the vectors.
+    long fillSquaredStraightLineDistancesOneByOne(final int point, final int from, final int to, final long[] distances, final int offset) {
+        final long x = xs[point];
+        final long y = ys[point];
+        final long z = zs[point];
+        long spread = 0;
+        for (int i = from; i < to; i++) {
+            final long dx = xs[i] - x;
+            final long dy = ys[i] - y;
+            final long dz = zs[i] - z;
+            distances[offset + i - from] = dx * dx + dy * dy + dz * dz;
+            spread |= Math.abs(dx) | Math.abs(dy) | Math.abs(dz);
+        }
+        return spread;
+    }
+
+    private void checkForOverflow(final int point, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                Math.addExact(Math.addExact(
+                        Math.multiplyExact((long) xs[i] - xs[point], (long) xs[i] - xs[point]),
+                        Math.multiplyExact((long) ys[i] - ys[point], (long) ys[i] - ys[point])),
+                        Math.multiplyExact((long) zs[i] - zs[point], (long) zs[i] - zs[point]));
+            } catch (final ArithmeticException e) {
+                throw new AssertionError(String.format("The squared distance between %s and %s would overflow!", get(point), get(i)), e);
+            }
+        }
+    }
+
+    /**
+     * @return The kernel's method, or null if the module, the class or the vectors on this CPU aren't there. Asks for
+     * the module before touching the class, because merely loading the class throws without it.
+     */
+    private static MethodHandle findVectorKernel(final String name, final MethodType type) {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            final Class<?> kernel = Class.forName("ch.thoenluk.ut.VectorSquaredDistances");
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (!(boolean) lookup.findStatic(kernel, "isWorthIt", MethodType.methodType(boolean.class)).invokeExact()) {
+                return null;
+            }
+            return lookup.findStatic(kernel, name, type);
+        } catch (final ClassNotFoundException e) {
+            return null;
+        } catch (final Throwable e) {
+            throw new AssertionError(String.format("VectorSquaredDistances is there, but its %s isn't what I expected.", name), e);
+        }
+    }
+
+    /**
+     * @return The smallest area containing every point. An empty cloud has no such area, and throws.
+     */
+    public ThreeDArea getBoundingBox() {
+        if (size() == 0) {
+            throw new AssertionError("An empty cloud is just sky.");
+        }
+        return new ThreeDArea(
+                new ThreeDPosition(Arrays.stream(xs).min().orElseThrow(), Arrays.stream(ys).min().orElseThrow(), Arrays.stream(zs).min().orElseThrow()),
+                new ThreeDPosition(Arrays.stream(xs).max().orElseThrow(), Arrays.stream(ys).max().orElseThrow(), Arrays.stream(zs).max().orElseThrow())
+        );
+    }
+
+    public IntStream points() {
+        return IntStream.range(0, size());
+    }
+
+    public Stream<ThreeDPosition> positions() {
+        return points().mapToObj(this::get);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ThreeDPointCloud of %s points", size());
+    }
+}
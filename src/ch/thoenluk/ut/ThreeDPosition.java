@@ -4,22 +4,54 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public record ThreeDPosition(int x, int y, int z) {
     public static ThreeDPosition fromString(final String description) {
-        final String[] coordinates = UtStrings.splitCommaSeparatedString(description);
-        return new ThreeDPosition(UtParsing.cachedParseInt(coordinates[0]), UtParsing.cachedParseInt(coordinates[1]), UtParsing.cachedParseInt(coordinates[2]));
+        return fromScanner(new InputScanner(description));
+    }
+
+    public static ThreeDPosition fromScanner(final InputScanner scanner) {
+        final int x = scanner.nextInt();
+        scanner.skipWhitespace();
+        scanner.expect(',');
+        final int y = scanner.nextInt();
+        scanner.skipWhitespace();
+        scanner.expect(',');
+        return new ThreeDPosition(x, y, scanner.nextInt());
     }
 
     public List<ThreeDPosition> getNeighbours(final NeighbourDirection direction) {
-        final List<ThreeDPosition> neighbours = new ArrayList<>();
-        for (final ThreeDPosition offset : direction.getOffsets()) {
-            neighbours.add(this.add(offset));
-        }
+        final List<ThreeDPosition> neighbours = new ArrayList<>(direction.size());
+        forEachNeighbour(direction, (x, y, z) -> neighbours.add(new ThreeDPosition(x, y, z)));
         return neighbours;
     }
 
+    /**
+     * Calls the visitor with the coordinates of every neighbour in the given direction, in getNeighbours order, without
+     * making a single ThreeDPosition along the way.
+     */
+    public void forEachNeighbour(final NeighbourDirection direction, final NeighbourVisitor visitor) {
+        final int[] offsets = direction.offsetCoordinates;
+        for (int i = 0; i < offsets.length; i += 3) {
+            visitor.visit(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]);
+        }
+    }
+
+    /**
+     * Writes the neighbours into the buffer as packed positions, in getNeighbours order. Bring a buffer of at least
+     * NeighbourDirection.size(), and reuse it.
+     * @return How many were written.
+     */
+    public int fillNeighbours(final NeighbourDirection direction, final long[] buffer) {
+        final int[] offsets = direction.offsetCoordinates;
+        for (int i = 0; i < offsets.length; i += 3) {
+            buffer[i / 3] = PackedThreeDPosition.pack(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]);
+        }
+        return offsets.length / 3;
+    }
+
     public int getDistanceFrom(final ThreeDPosition other) {
         return Math.abs(x() - other.x())
                 + Math.abs(y() - other.y())
@@ -155,13 +187,27 @@ public record ThreeDPosition(int x, int y, int z) {
         ));
 
         private final List<ThreeDPosition> offsets;
+        // x, y and z of every offset in a row, so visiting them is one walk over one array.
+        private final int[] offsetCoordinates;
 
         /* private */ NeighbourDirection(final List<ThreeDPosition> offsets) {
             this.offsets = offsets;
+            this.offsetCoordinates = offsets.stream()
+                    .flatMapToInt(offset -> IntStream.of(offset.x(), offset.y(), offset.z()))
+                    .toArray();
         }
 
         public List<ThreeDPosition> getOffsets() {
             return offsets;
         }
+
+        public int size() {
+            return offsets.size();
+        }
+    }
+
+    @FunctionalInterface
+    public interface NeighbourVisitor {
+        void visit(int x, int y, int z);
     }
 }
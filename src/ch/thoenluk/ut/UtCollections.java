@@ -16,6 +16,14 @@ public class UtCollections {
         return findPositionsWithValueInMap(map, value).findAny().orElseThrow();
     }
 
+    public static Stream<Position> findPositionsWithValueInGrid(final Grid grid, final byte value) {
+        return grid.findPositionsWithValue(value);
+    }
+
+    public static Position findSinglePositionWithValueInGrid(final Grid grid, final byte value) {
+        return findPositionsWithValueInGrid(grid, value).findAny().orElseThrow();
+    }
+
     public static <K, V> Stream<K> findKeysWithValueInMap(final Map<K, V> map, final V value) {
         return map.entrySet().stream()
                 .filter(entry -> value.equals(entry.getValue()))
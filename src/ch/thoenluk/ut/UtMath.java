@@ -1,5 +1,6 @@
 package ch.thoenluk.ut;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -19,6 +20,21 @@ public class UtMath {
         return result;
     }
 
+    // The two summand cases, without the array, so primitive streams can reduce with them as they are.
+    public static int overflowSafeSum(final int summand, final int otherSummand) {
+        if (Integer.MAX_VALUE - summand < otherSummand) {
+            throw new AssertionError("Sum would overflow! Use a long instead.");
+        }
+        return summand + otherSummand;
+    }
+
+    public static long superOverflowSafeSum(final long summand, final long otherSummand) {
+        if (otherSummand > 0 && summand > 0 && Long.MAX_VALUE - summand < otherSummand) {
+            throw new AssertionError(String.format("Would overflow for result %d and summand %d!", summand, otherSummand));
+        }
+        return summand + otherSummand;
+    }
+
     public static long superOverflowSafeSum(final long... summands) {
         long result = 0;
         for (final long summand : summands) {
@@ -136,7 +152,11 @@ public class UtMath {
     }
 
     public static String restOfTheOwl(final IntStream stream) {
-        return restOfTheOwl(stream.boxed());
+        return Integer.toString(stream.reduce(UtMath::overflowSafeSum).orElseThrow());
+    }
+
+    public static String restOfTheOwl(final int[] numbers) {
+        return restOfTheOwl(Arrays.stream(numbers));
     }
 
     public static String restOfTheLongOwl(final Stream<Long> stream) {
@@ -146,6 +166,10 @@ public class UtMath {
     }
 
     public static String restOfTheLongOwl(final LongStream stream) {
-        return restOfTheLongOwl(stream.boxed());
+        return Long.toString(stream.reduce(UtMath::superOverflowSafeSum).orElseThrow());
+    }
+
+    public static String restOfTheLongOwl(final long[] numbers) {
+        return restOfTheLongOwl(Arrays.stream(numbers));
     }
 }
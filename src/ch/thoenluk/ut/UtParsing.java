@@ -1,63 +1,67 @@
 package ch.thoenluk.ut;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
 public class UtParsing {
-    private static final Map<String, Integer> STRING_INTEGER_CACHE = new HashMap<>();
-    private static final Map<String, Long> STRING_LONG_CACHE = new HashMap<>();
-    private static final Map<Character, Integer> CHAR_INTEGER_CACHE = new HashMap<>();
+    // Cached in whichever ParsingCache the current challenge is running within, or not at all outside of one.
 
-    public static synchronized int cachedParseInt(final String stringRepresentation) {
-        return STRING_INTEGER_CACHE.computeIfAbsent(stringRepresentation, Integer::parseInt);
+    public static int cachedParseInt(final String stringRepresentation) {
+        return ParsingCache.parseInt(stringRepresentation);
     }
 
-    public static synchronized int cachedParseInt(final String stringRepresentation, final int radix) {
-        if (!STRING_INTEGER_CACHE.containsKey(stringRepresentation)) {
-            STRING_INTEGER_CACHE.put(stringRepresentation, Integer.parseInt(stringRepresentation, radix));
-        }
-
-        return STRING_INTEGER_CACHE.get(stringRepresentation);
+    public static int cachedParseInt(final String stringRepresentation, final int radix) {
+        return ParsingCache.parseInt(stringRepresentation, radix);
     }
 
-    public static synchronized long cachedParseLong(final String stringRepresentation) {
-        return STRING_LONG_CACHE.computeIfAbsent(stringRepresentation, Long::parseLong);
+    public static long cachedParseLong(final String stringRepresentation) {
+        return ParsingCache.parseLong(stringRepresentation);
     }
 
-    public static synchronized long cachedParseLong(final String stringRepresentation, final int radix) {
-        if (!STRING_LONG_CACHE.containsKey(stringRepresentation)) {
-            STRING_LONG_CACHE.put(stringRepresentation, Long.parseLong(stringRepresentation, radix));
-        }
+    public static long cachedParseLong(final String stringRepresentation, final int radix) {
+        return ParsingCache.parseLong(stringRepresentation, radix);
+    }
 
-        return STRING_LONG_CACHE.get(stringRepresentation);
+    public static int cachedGetNumericValue(final char charRepresentation) {
+        return ParsingCache.getNumericValue(charRepresentation);
     }
 
-    public static synchronized int cachedGetNumericValue(final char charRepresentation) {
-        return CHAR_INTEGER_CACHE.computeIfAbsent(charRepresentation, Character::getNumericValue);
+    // The scanning parsers below read their numbers straight from the characters, so there's no String to cache by.
+
+    public static List<Integer> multilineStringToIntegerList(final CharSequence stringRepresentation) {
+        return whitespaceSeparatedStringToIntegerList(stringRepresentation);
     }
 
-    public static List<Integer> multilineStringToIntegerList(final String stringRepresentation) {
-        final String[] lines = UtStrings.splitMultilineString(stringRepresentation);
-        final List<Integer> parsedList = new ArrayList<>(lines.length);
-        for (final String line : lines) {
-            parsedList.add(cachedParseInt(line));
-        }
-        return parsedList;
+    public static int[] multilineStringToIntArray(final CharSequence stringRepresentation) {
+        return whitespaceSeparatedStringToIntArray(stringRepresentation);
     }
 
     public static Map<Position, Character> multilineStringToPositionCharacterMap(final String stringRepresentation) {
-        final Map<Position, Character> map = new HashMap<>();
-        int y, x;
+        return linesToPositionMap(Arrays.asList(UtStrings.splitMultilineString(stringRepresentation)), character -> (char) character);
+    }
 
-        final String[] lines = UtStrings.splitMultilineString(stringRepresentation);
+    public static Map<Position, Character> multilineStringToPositionCharacterMap(final AsciiInput asciiRepresentation) {
+        return linesToPositionMap(UtStrings.splitMultilineAsciiInput(asciiRepresentation), character -> (char) character);
+    }
 
-        for (y = 0; y < lines.length; y++) {
-            final String line = lines[y];
-            for (x = 0; x < line.length(); x++) {
-                map.put(new Position(y, x), line.charAt(x));
+    // Rows are parsed in parallel once there are enough of them. Each knows its own y, so the offsets can't go wrong.
+    private static <V> Map<Position, V> linesToPositionMap(final List<? extends CharSequence> lines, final IntFunction<V> cellParser) {
+        final int width = lines.isEmpty() ? 0 : lines.getFirst().length();
+        final int rowsPerRange = ParallelParsing.rowsPerRange(width);
+        // Only a ConcurrentHashMap if there's concurrency. It locks per bin, never the whole map.
+        final Map<Position, V> map = lines.size() <= rowsPerRange
+                ? HashMap.newHashMap(lines.size() * width)
+                : new ConcurrentHashMap<>(lines.size() * width);
+        ParallelParsing.forEachRange(lines.size(), rowsPerRange, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                final CharSequence line = lines.get(y);
+                for (int x = 0; x < line.length(); x++) {
+                    map.put(new Position(y, x), cellParser.apply(line.charAt(x)));
+                }
             }
-        }
-
+        });
         return map;
     }
 
@@ -77,54 +81,131 @@ public class UtParsing {
                 .toArray(String[]::new);
     }
 
+    public static String[] gridToStringArray(final Grid grid) {
+        return grid.rows()
+                .map(CharSequence::toString)
+                .toArray(String[]::new);
+    }
+
+    public static Grid multilineStringToCharacterGrid(final String stringRepresentation) {
+        return Grid.fromLines(Arrays.asList(UtStrings.splitMultilineString(stringRepresentation)), character -> character);
+    }
+
+    public static Grid multilineStringToCharacterGrid(final AsciiInput asciiRepresentation) {
+        return Grid.fromLines(UtStrings.splitMultilineAsciiInput(asciiRepresentation), character -> character);
+    }
+
+    public static Grid multilineStringToDigitGrid(final String stringRepresentation) {
+        return Grid.fromLines(Arrays.asList(UtStrings.splitMultilineString(stringRepresentation)), Character::getNumericValue);
+    }
+
+    public static Grid multilineStringToDigitGrid(final AsciiInput asciiRepresentation) {
+        return Grid.fromLines(UtStrings.splitMultilineAsciiInput(asciiRepresentation), Character::getNumericValue);
+    }
+
     public static Map<Position, Integer> multilineStringToPositionIntegerMap(final String stringRepresentation) {
-        final Map<Position, Integer> map = new HashMap<>();
-        int y, x;
+        return linesToPositionMap(Arrays.asList(UtStrings.splitMultilineString(stringRepresentation)), Character::getNumericValue);
+    }
 
-        final String[] lines = UtStrings.splitMultilineString(stringRepresentation);
+    public static Map<Position, Integer> multilineStringToPositionIntegerMap(final AsciiInput asciiRepresentation) {
+        return linesToPositionMap(UtStrings.splitMultilineAsciiInput(asciiRepresentation), Character::getNumericValue);
+    }
 
-        for (y = 0; y < lines.length; y++) {
-            for (x = 0; x < lines[y].length(); x++) {
-                map.put(new Position(y, x), cachedGetNumericValue(lines[y].charAt(x)));
-            }
+    public static List<Position> multilineStringToPositionList(final CharSequence stringRepresentation) {
+        return ParallelParsing.concatenateLists(ParallelParsing.parseLineChunks(stringRepresentation, UtParsing::scanPositions));
+    }
+
+    private static List<Position> scanPositions(final CharSequence stringRepresentation) {
+        final InputScanner scanner = new InputScanner(stringRepresentation);
+        final List<Position> positions = new ArrayList<>();
+        while (scanner.hasNext()) {
+            positions.add(Position.fromScanner(scanner));
         }
+        return positions;
+    }
 
-        return map;
+    public static List<ThreeDPosition> multilineStringToThreeDPositionList(final CharSequence stringRepresentation) {
+        return ParallelParsing.concatenateLists(ParallelParsing.parseLineChunks(stringRepresentation, UtParsing::scanThreeDPositions));
+    }
+
+    private static List<ThreeDPosition> scanThreeDPositions(final CharSequence stringRepresentation) {
+        final InputScanner scanner = new InputScanner(stringRepresentation);
+        final List<ThreeDPosition> positions = new ArrayList<>();
+        while (scanner.hasNext()) {
+            positions.add(ThreeDPosition.fromScanner(scanner));
+        }
+        return positions;
+    }
+
+    public static ThreeDPointCloud multilineStringToThreeDPointCloud(final CharSequence stringRepresentation) {
+        return ThreeDPointCloud.concatenate(ParallelParsing.parseLineChunks(stringRepresentation,
+                chunk -> ThreeDPointCloud.fromScanner(new InputScanner(chunk))));
+    }
+
+    /**
+     * Commas separate, whitespace anywhere around them is ignored.
+     */
+    public static IntStream commaSeparatedStringToIntStream(final CharSequence csv) {
+        final InputScanner scanner = new InputScanner(csv);
+        final IntStream.Builder numbers = IntStream.builder();
+        while (scanner.hasNext()) {
+            numbers.add(scanner.nextInt());
+            scanner.skipWhitespace();
+            scanner.skipIf(',');
+        }
+        return numbers.build();
+    }
+
+    public static List<Integer> whitespaceSeparatedStringToIntegerList(final CharSequence wss) {
+        return Arrays.stream(whitespaceSeparatedStringToIntArray(wss)).boxed().toList();
     }
 
-    public static List<Position> multilineStringToPositionList(final String stringRepresentation) {
-        return Arrays.stream(UtStrings.splitMultilineString(stringRepresentation))
-                .map(Position::fromString)
-                .toList();
+    public static int[] whitespaceSeparatedStringToIntArray(final CharSequence wss) {
+        return ParallelParsing.concatenateInts(ParallelParsing.parseLineChunks(wss, UtParsing::scanWhitespaceSeparatedInts));
     }
 
-    public static List<ThreeDPosition> multilineStringToThreeDPositionList(final String stringRepresentation) {
-        return UtStrings.streamInputAsLines(stringRepresentation)
-                .map(ThreeDPosition::fromString)
-                .toList();
+    private static int[] scanWhitespaceSeparatedInts(final CharSequence wss) {
+        final InputScanner scanner = new InputScanner(wss);
+        final IntList numbers = new IntList();
+        while (scanner.hasNext()) {
+            numbers.add(scanner.nextInt());
+        }
+        return numbers.toArray();
     }
 
-    public static IntStream commaSeparatedStringToIntStream(final String csv) {
-        return Arrays.stream(UtStrings.splitCommaSeparatedString(csv))
-                .mapToInt(UtParsing::cachedParseInt);
+    public static List<Long> commaSeparatedStringToLongList(final CharSequence csv) {
+        return Arrays.stream(commaSeparatedStringToLongArray(csv)).boxed().toList();
     }
 
-    public static List<Integer> whitespaceSeparatedStringToIntegerList(final String wss) {
-        return Arrays.stream(wss.split(UtStrings.WHITE_SPACE_REGEX))
-                .map(UtParsing::cachedParseInt)
-                .toList();
+    public static long[] commaSeparatedStringToLongArray(final CharSequence csv) {
+        return ParallelParsing.concatenateLongs(ParallelParsing.parseLineChunks(csv, UtParsing::scanCommaSeparatedLongs));
     }
 
-    public static List<Long> commaSeparatedStringToLongList(final String csv) {
-        return Arrays.stream(UtStrings.splitCommaSeparatedString(csv))
-                .map(String::trim)
-                .map(UtParsing::cachedParseLong)
-                .toList();
+    private static long[] scanCommaSeparatedLongs(final CharSequence csv) {
+        final InputScanner scanner = new InputScanner(csv);
+        final LongList numbers = new LongList();
+        while (scanner.hasNext()) {
+            numbers.add(scanner.nextLong());
+            scanner.skipWhitespace();
+            scanner.skipIf(',');
+        }
+        return numbers.toArray();
     }
 
-    public static List<Long> whitespaceSeparatedStringToLongList(final String wss) {
-        return Arrays.stream(wss.split(UtStrings.WHITE_SPACE_REGEX))
-                .map(UtParsing::cachedParseLong)
-                .toList();
+    public static List<Long> whitespaceSeparatedStringToLongList(final CharSequence wss) {
+        return Arrays.stream(whitespaceSeparatedStringToLongArray(wss)).boxed().toList();
+    }
+
+    public static long[] whitespaceSeparatedStringToLongArray(final CharSequence wss) {
+        return ParallelParsing.concatenateLongs(ParallelParsing.parseLineChunks(wss, UtParsing::scanWhitespaceSeparatedLongs));
+    }
+
+    private static long[] scanWhitespaceSeparatedLongs(final CharSequence wss) {
+        final InputScanner scanner = new InputScanner(wss);
+        final LongList numbers = new LongList();
+        while (scanner.hasNext()) {
+            numbers.add(scanner.nextLong());
+        }
+        return numbers.toArray();
     }
 }
@@ -3,7 +3,8 @@ package ch.thoenluk.ut;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 public class UtStrings {
@@ -13,8 +14,25 @@ public class UtStrings {
     public static final String NEWLINE_REGEX = "\\r?\\n";
     public static final String NUMBERS_REGEX = "\\d+";
 
-    public static String[] splitCommaSeparatedString(final String csv) {
-        return csv.replaceAll(NEWLINE_REGEX, "").split(",");
+    /**
+     * Line breaks are dropped, wherever they are, and so are empty fields at the end. Same as String.split would have.
+     */
+    public static String[] splitCommaSeparatedString(final CharSequence csv) {
+        final InputScanner scanner = new InputScanner(csv);
+        final List<String> fields = new ArrayList<>();
+        do {
+            fields.add(withoutLineBreaks(scanner.nextField(',')));
+        } while (!scanner.isAtEnd());
+        return withoutTrailingEmptyStrings(fields);
+    }
+
+    public static String[] splitWhitespaceSeparatedString(final CharSequence wss) {
+        final InputScanner scanner = new InputScanner(wss);
+        final List<String> tokens = new ArrayList<>();
+        while (scanner.hasNext()) {
+            tokens.add(scanner.nextToken().toString());
+        }
+        return tokens.toArray(String[]::new);
     }
 
     public static void print(final Object objToPrint) {
@@ -38,16 +56,90 @@ public class UtStrings {
         }
     }
 
+    public static AsciiInput mapFile(final File file) {
+        return AsciiInput.map(file);
+    }
+
     public static String[] splitMultilineString(final String multiline) {
-        return multiline.replaceAll(NEWLINE_REGEX, "\n").split("\n");
+        final InputScanner scanner = new InputScanner(multiline);
+        final List<String> lines = new ArrayList<>();
+        do {
+            lines.add(scanner.nextLine().toString());
+        } while (!scanner.isAtEnd());
+        return withoutTrailingEmptyStrings(lines);
+    }
+
+    public static String[] splitMultilineString(final AsciiInput multiline) {
+        return splitMultilineAsciiInput(multiline).stream()
+                .map(AsciiInput::toString)
+                .toArray(String[]::new);
+    }
+
+    static List<AsciiInput> splitMultilineAsciiInput(final AsciiInput multiline) {
+        final List<AsciiInput> lines = multiline.lines();
+        // String.split drops trailing empty strings, so for the same input, so do we.
+        int end = lines.size();
+        while (end > 0 && lines.get(end - 1).isEmpty()) {
+            end--;
+        }
+        return lines.subList(0, end);
     }
 
     public static Stream<String> streamInputAsLines(final String input) {
         return input.lines();
     }
 
-    public static String[] splitStringWithEmptyLines(final String emptyLineSeparatedString) {
-        return emptyLineSeparatedString.replaceAll(NEWLINE_REGEX, "\n").split("\n\n");
+    public static Stream<String> streamInputAsLines(final AsciiInput input) {
+        return input.streamLines().map(AsciiInput::toString);
+    }
+
+    public static String[] splitStringWithEmptyLines(final CharSequence emptyLineSeparatedString) {
+        final InputScanner scanner = new InputScanner(emptyLineSeparatedString);
+        final List<String> blocks = new ArrayList<>();
+        do {
+            blocks.add(withoutCarriageReturns(scanner.nextBlock()));
+        } while (!scanner.isAtEnd());
+        return withoutTrailingEmptyStrings(blocks);
+    }
+
+    private static String withoutLineBreaks(final CharSequence field) {
+        return withoutCharacters(field, '\n', '\r');
+    }
+
+    private static String withoutCarriageReturns(final CharSequence block) {
+        return withoutCharacters(block, '\r', '\r');
+    }
+
+    // Inputs almost never have what we're removing, so don't pay for a builder unless they do.
+    private static String withoutCharacters(final CharSequence sequence, final char unwanted, final char alsoUnwanted) {
+        final int length = sequence.length();
+        int i = 0;
+        while (i < length && sequence.charAt(i) != unwanted && sequence.charAt(i) != alsoUnwanted) {
+            i++;
+        }
+        if (i == length) {
+            return sequence.toString();
+        }
+        final StringBuilder builder = new StringBuilder(length).append(sequence, 0, i);
+        for (; i < length; i++) {
+            final char character = sequence.charAt(i);
+            if (character != unwanted && character != alsoUnwanted) {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    // String.split drops trailing empty strings, unless that would leave nothing of an input without any delimiter.
+    private static String[] withoutTrailingEmptyStrings(final List<String> strings) {
+        if (strings.size() == 1) {
+            return strings.toArray(String[]::new);
+        }
+        int end = strings.size();
+        while (end > 0 && strings.get(end - 1).isEmpty()) {
+            end--;
+        }
+        return strings.subList(0, end).toArray(String[]::new);
     }
 
     public static String substringUntilDelimiter(final String string, final String delimiter) {
@@ -0,0 +1,78 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The index against asking every area, for sizes from nothing to enough to need a few levels of nodes. Results come in
+ * whatever order the tree finds them, so both sides get sorted before comparing.
+ */
+class AreaIndexTest {
+    private static final Comparator<Area> BY_COORDINATES = Comparator.<Area>comparingInt(area -> area.bottomLeft().y())
+            .thenComparingInt(area -> area.bottomLeft().x())
+            .thenComparingInt(area -> area.topRight().y())
+            .thenComparingInt(area -> area.topRight().x());
+
+    @Test
+    void containingMatchesAskingEveryArea() {
+        final Random random = new Random(23);
+        for (final int size : new int[] {0, 1, 15, 16, 17, 300, 5000}) {
+            final List<Area> areas = randomAreas(random, size, 1000, 60);
+            final AreaIndex index = AreaIndex.of(areas);
+            assertEquals(size, index.size());
+            for (int query = 0; query < 500; query++) {
+                final Position position = new Position(random.nextInt(1100) - 50, random.nextInt(1100) - 50);
+                final List<Area> expected = areas.stream().filter(area -> area.containsPosition(position)).toList();
+                assertEquals(sorted(expected), sorted(index.getAreasContaining(position)), () -> size + " areas containing " + position);
+                assertEquals(!expected.isEmpty(), index.anyContains(position), () -> size + " areas, any containing " + position);
+            }
+        }
+    }
+
+    @Test
+    void overlappingMatchesAskingEveryArea() {
+        final Random random = new Random(32);
+        for (final int size : new int[] {0, 1, 15, 16, 17, 300, 5000}) {
+            final List<Area> areas = randomAreas(random, size, 1000, 60);
+            final AreaIndex index = AreaIndex.of(areas);
+            for (final Area query : randomAreas(random, 500, 1000, 200)) {
+                final List<Area> expected = areas.stream().filter(area -> area.overlaps(query)).toList();
+                assertEquals(sorted(expected), sorted(index.getOverlappingAreas(query)), () -> size + " areas overlapping " + query);
+                assertEquals(!expected.isEmpty(), index.anyOverlaps(query), () -> size + " areas, any overlapping " + query);
+            }
+        }
+    }
+
+    @Test
+    void duplicatesAndSharedEdgesAreAllFound() {
+        final Area square = new Area(new Position(0, 0), new Position(4, 4));
+        final Area neighbour = new Area(new Position(0, 4), new Position(4, 8));
+        final List<Area> areas = IntStream.range(0, 40).mapToObj(i -> i % 2 == 0 ? square : neighbour).toList();
+        final AreaIndex index = AreaIndex.of(areas);
+        assertEquals(40, index.getAreasContaining(new Position(2, 4)).size());
+        assertEquals(20, index.getAreasContaining(new Position(2, 3)).size());
+        assertEquals(20, index.getOverlappingAreas(new Area(new Position(4, 8), new Position(9, 9))).size());
+        assertTrue(index.getAreasContaining(new Position(5, 4)).isEmpty());
+        assertFalse(index.anyContains(new Position(5, 4)));
+    }
+
+    private static List<Area> randomAreas(final Random random, final int count, final int range, final int maxSide) {
+        return IntStream.range(0, count)
+                .mapToObj(_ -> {
+                    final int y = random.nextInt(range);
+                    final int x = random.nextInt(range);
+                    return new Area(new Position(y, x), new Position(y + random.nextInt(maxSide), x + random.nextInt(maxSide)));
+                })
+                .toList();
+    }
+
+    private static List<Area> sorted(final List<Area> areas) {
+        return areas.stream().sorted(BY_COORDINATES).toList();
+    }
+}
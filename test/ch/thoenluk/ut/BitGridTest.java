@@ -0,0 +1,130 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The adder circuit against counting neighbours one by one, on widths either side of the 64 column word boundaries,
+ * where the shifting carries from one long to the next.
+ */
+class BitGridTest {
+    private static final int[] WIDTHS = {1, 2, 63, 64, 65, 127, 128, 129, 141};
+
+    @Test
+    void neighbourCountsMatchCountingOneByOne() {
+        final Random random = new Random(25);
+        for (final int width : WIDTHS) {
+            for (final int height : new int[] {1, 2, 3, 17}) {
+                final BitGrid grid = randomGrid(random, height, width, random.nextInt(101));
+                for (int k = -1; k <= 10; k++) {
+                    final BitGrid fewer = grid.withFewerNeighboursThan(k);
+                    final BitGrid atLeast = grid.withAtLeastNeighbours(k);
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            final int neighbours = countNeighbours(grid, y, x);
+                            final String cell = String.format("%s,%s of a %sx%s grid with %s neighbours, k = %s", y, x, height, width, neighbours, k);
+                            assertEquals(neighbours < k, fewer.get(y, x), cell);
+                            assertEquals(neighbours >= k, atLeast.get(y, x), cell);
+                        }
+                    }
+                    // Nothing may leak into the padding past the last column, or cardinality would count it.
+                    assertEquals(countSet(fewer), fewer.cardinality());
+                    assertEquals(countSet(atLeast), atLeast.cardinality());
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullGridCountsEightInsideAndFewerAtTheEdges() {
+        final BitGrid full = randomGrid(new Random(1), 5, 130, 100);
+        final BitGrid surrounded = full.withAtLeastNeighbours(8);
+        assertEquals(3 * 128, surrounded.cardinality());
+        assertFalse(surrounded.get(0, 5));
+        assertFalse(surrounded.get(2, 129));
+        assertTrue(surrounded.get(2, 64));
+        assertEquals(4, full.withFewerNeighboursThan(4).cardinality());
+    }
+
+    @Test
+    void setOperationsWorkWordForWord() {
+        final Random random = new Random(4);
+        final BitGrid first = randomGrid(random, 9, 129, 50);
+        final BitGrid second = randomGrid(random, 9, 129, 50);
+        final BitGrid intersection = first.copy();
+        intersection.retainAll(second);
+        final BitGrid difference = first.copy();
+        difference.removeAll(second);
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 129; x++) {
+                assertEquals(first.get(y, x) && second.get(y, x), intersection.get(y, x));
+                assertEquals(first.get(y, x) && !second.get(y, x), difference.get(y, x));
+            }
+        }
+        assertEquals(first.cardinality(), intersection.cardinality() + difference.cardinality());
+        difference.removeAll(difference);
+        assertTrue(difference.isEmpty());
+        assertThrows(AssertionError.class, () -> first.retainAll(new BitGrid(9, 128)));
+    }
+
+    @Test
+    void setClearAndBounds() {
+        final BitGrid grid = new BitGrid(3, 70);
+        grid.set(1, 65);
+        grid.set(2, 0);
+        assertTrue(grid.get(1, 65));
+        assertFalse(grid.get(1, 1));
+        assertEquals(2, grid.cardinality());
+        grid.clear(1, 65);
+        assertFalse(grid.get(1, 65));
+        assertFalse(grid.get(-1, 0));
+        assertFalse(grid.get(0, 70));
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.set(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.clear(0, -1));
+    }
+
+    @Test
+    void ofTakesTheCellsWithTheValue() {
+        final Grid grid = UtParsing.multilineStringToCharacterGrid("..@@.\n@.@..\n....@");
+        final BitGrid rolls = BitGrid.of(grid, (byte) '@');
+        assertEquals("..##.\n#.#..\n....#", rolls.toString());
+        assertEquals(5, rolls.cardinality());
+    }
+
+    private static BitGrid randomGrid(final Random random, final int height, final int width, final int percentSet) {
+        final BitGrid grid = new BitGrid(height, width);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(100) < percentSet) {
+                    grid.set(y, x);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static int countNeighbours(final BitGrid grid, final int y, final int x) {
+        int count = 0;
+        for (final Position direction : Position.NeighbourDirection.OMNIDIRECTIONAL.getDirections()) {
+            if (grid.get(y + direction.y(), x + direction.x())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countSet(final BitGrid grid) {
+        int count = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.get(y, x)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,147 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The sweep against the dumbest thing that could possibly work: small cuboids, and a set of every position in them.
+ */
+class CuboidSetTest {
+    private static final int RANGE = 12;
+
+    @Test
+    void volumesMatchCountingPositions() {
+        final Random random = new Random(22);
+        for (int round = 0; round < 200; round++) {
+            final CuboidSet first = randomSet(random, 1 + random.nextInt(8));
+            final CuboidSet second = randomSet(random, random.nextInt(8));
+            final Set<ThreeDPosition> firstPositions = positionsOf(first);
+            final Set<ThreeDPosition> secondPositions = positionsOf(second);
+            final Set<ThreeDPosition> union = new HashSet<>(firstPositions);
+            union.addAll(secondPositions);
+            final Set<ThreeDPosition> intersection = new HashSet<>(firstPositions);
+            intersection.retainAll(secondPositions);
+            final Set<ThreeDPosition> difference = new HashSet<>(firstPositions);
+            difference.removeAll(secondPositions);
+
+            assertEquals(firstPositions.size(), first.getVolume(), () -> "volume of " + first.cuboids());
+            assertEquals(union.size(), first.getUnionVolume(second), () -> "union of " + first.cuboids() + " and " + second.cuboids());
+            assertEquals(intersection.size(), first.getIntersectionVolume(second), () -> "intersection of " + first.cuboids() + " and " + second.cuboids());
+            assertEquals(difference.size(), first.getDifferenceVolume(second), () -> first.cuboids() + " minus " + second.cuboids());
+        }
+    }
+
+    @Test
+    void positionsAreEveryPositionOnce() {
+        final Random random = new Random(17);
+        for (int round = 0; round < 100; round++) {
+            final CuboidSet set = randomSet(random, 1 + random.nextInt(6));
+            final long[] packed = set.positions().toArray();
+            final Set<ThreeDPosition> positions = new HashSet<>();
+            for (final long position : packed) {
+                assertTrue(positions.add(PackedThreeDPosition.toThreeDPosition(position)), () -> "duplicate in " + set.cuboids());
+            }
+            assertEquals(positionsOf(set), positions);
+            assertEquals(set.getVolume(), packed.length);
+        }
+    }
+
+    @Test
+    void containsPositionMatchesTheCuboids() {
+        final Random random = new Random(4);
+        final CuboidSet set = randomSet(random, 5);
+        final Set<ThreeDPosition> positions = positionsOf(set);
+        for (int x = -1; x <= RANGE; x++) {
+            for (int y = -1; y <= RANGE; y++) {
+                for (int z = -1; z <= RANGE; z++) {
+                    final ThreeDPosition position = new ThreeDPosition(x, y, z);
+                    assertEquals(positions.contains(position), set.containsPosition(position), position::toString);
+                }
+            }
+        }
+    }
+
+    @Test
+    void touchingCuboidsDontOverlap() {
+        final ThreeDArea left = cuboid(0, 0, 0, 4, 4, 4);
+        final ThreeDArea right = cuboid(5, 0, 0, 9, 4, 4);
+        assertEquals(250, CuboidSet.of(left, right).getVolume());
+        assertEquals(0, CuboidSet.of(left).getIntersectionVolume(CuboidSet.of(right)));
+        assertEquals(125, CuboidSet.of(left).getDifferenceVolume(CuboidSet.of(right)));
+    }
+
+    @Test
+    void hugeCuboidsDontOverflow() {
+        final ThreeDArea huge = cuboid(-1_000_000, -1_000_000, -1_000_000, 999_999, 999_999, 999_999);
+        final ThreeDArea corner = cuboid(0, 0, 0, 999_999, 999_999, 999_999);
+        assertEquals(8_000_000_000_000_000_000L, CuboidSet.of(huge, corner).getVolume());
+        assertEquals(1_000_000_000_000_000_000L, CuboidSet.of(huge).getIntersectionVolume(CuboidSet.of(corner)));
+        assertEquals(7_000_000_000_000_000_000L, CuboidSet.of(huge).getDifferenceVolume(CuboidSet.of(corner)));
+    }
+
+    @Test
+    void cuboidsAtTheEdgesOfIntAreMeasuredExactly() {
+        final ThreeDArea top = cuboid(Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 2, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        final ThreeDArea topCorner = cuboid(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        final ThreeDArea bottom = cuboid(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 1);
+        assertEquals(35, CuboidSet.of(top, topCorner, bottom).getVolume());
+        assertEquals(8, CuboidSet.of(top, bottom).getIntersectionVolume(CuboidSet.of(topCorner)));
+        assertEquals(27, CuboidSet.of(top, bottom).getDifferenceVolume(CuboidSet.of(topCorner)));
+        // Every x there is, on a 2x2 stick: 2^32 * 4.
+        final ThreeDArea stick = cuboid(Integer.MIN_VALUE, 0, 0, Integer.MAX_VALUE, 1, 1);
+        assertEquals((1L << 34) + 8, CuboidSet.of(stick, bottom).getVolume());
+    }
+
+    @Test
+    void volumesTooBigForALongThrow() {
+        // One x thick, every y and z: 2^64, which wraps around to exactly 0 if nobody checks.
+        final ThreeDArea wall = cuboid(0, Integer.MIN_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> CuboidSet.of(wall).getVolume());
+        // Half of every y and z is 2^62, which fits, but four x of it are 2^64 again.
+        assertEquals(1L << 62, CuboidSet.of(cuboid(0, Integer.MIN_VALUE, Integer.MIN_VALUE, 0, -1, -1)).getVolume());
+        final ThreeDArea slab = cuboid(0, Integer.MIN_VALUE, Integer.MIN_VALUE, 3, -1, -1);
+        assertThrows(ArithmeticException.class, () -> CuboidSet.of(slab).getVolume());
+    }
+
+    @Test
+    void emptySetsAreEmpty() {
+        final CuboidSet empty = CuboidSet.of(List.of());
+        final CuboidSet cube = CuboidSet.of(cuboid(1, 1, 1, 3, 3, 3));
+        assertEquals(0, empty.getVolume());
+        assertEquals(27, empty.getUnionVolume(cube));
+        assertEquals(0, cube.getIntersectionVolume(empty));
+        assertEquals(27, cube.getDifferenceVolume(empty));
+        assertEquals(0, empty.positions().count());
+        assertFalse(empty.containsPosition(new ThreeDPosition(1, 1, 1)));
+    }
+
+    private static CuboidSet randomSet(final Random random, final int size) {
+        return CuboidSet.of(IntStream.range(0, size).mapToObj(_ -> randomCuboid(random)).toList());
+    }
+
+    private static ThreeDArea randomCuboid(final Random random) {
+        final int x = random.nextInt(RANGE);
+        final int y = random.nextInt(RANGE);
+        final int z = random.nextInt(RANGE);
+        return cuboid(x, y, z, x + random.nextInt(RANGE - x), y + random.nextInt(RANGE - y), z + random.nextInt(RANGE - z));
+    }
+
+    private static ThreeDArea cuboid(final int fromX, final int fromY, final int fromZ, final int toX, final int toY, final int toZ) {
+        return new ThreeDArea(new ThreeDPosition(fromX, fromY, fromZ), new ThreeDPosition(toX, toY, toZ));
+    }
+
+    private static Set<ThreeDPosition> positionsOf(final CuboidSet set) {
+        final Set<ThreeDPosition> positions = new HashSet<>();
+        for (final ThreeDArea cuboid : set.cuboids()) {
+            positions.addAll(cuboid.getPositionsWithin());
+        }
+        return positions;
+    }
+}
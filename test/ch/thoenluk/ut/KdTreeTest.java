@@ -0,0 +1,110 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Everything the tree answers, checked against sorting every candidate by (distance, index), which is what it promises
+ * to be the same as. Small coordinate ranges, so there are ties aplenty to get wrong.
+ */
+class KdTreeTest {
+    @Test
+    void nearestNeighboursMatchSortingEveryPoint() {
+        final Random random = new Random(21);
+        for (final int range : new int[] {3, 10, 1000}) {
+            final ThreeDPointCloud cloud = randomCloud(random, 300, range);
+            final KdTree tree = KdTree.of(cloud);
+            for (int point = 0; point < cloud.size(); point++) {
+                for (final int k : new int[] {1, 2, 7, 50}) {
+                    assertArrayEquals(bruteForceNeighbours(tree, point, k), tree.getNearestNeighbours(point, k),
+                            String.format("%s nearest to %s with coordinates up to %s", k, point, range));
+                }
+            }
+        }
+    }
+
+    @Test
+    void askingForMoreNeighboursThanThereAreGetsAllOfThem() {
+        final ThreeDPointCloud cloud = randomCloud(new Random(12), 20, 5);
+        final KdTree tree = KdTree.of(cloud);
+        assertArrayEquals(bruteForceNeighbours(tree, 3, 19), tree.getNearestNeighbours(3, 1000));
+        assertArrayEquals(new int[0], tree.getNearestNeighbours(3, 0));
+    }
+
+    @Test
+    void allPointsInOneSpotAreOrderedByIndex() {
+        final ThreeDPosition spot = new ThreeDPosition(4, 4, 4);
+        final KdTree tree = KdTree.of(ThreeDPointCloud.of(spot, spot, spot, spot, spot));
+        assertArrayEquals(new int[] {0, 1, 3, 4}, tree.getNearestNeighbours(2, 10));
+        assertEquals(List.of(new KdTree.Pair(0, 1, 0), new KdTree.Pair(0, 2, 0), new KdTree.Pair(0, 3, 0)),
+                tree.streamClosestPairs().limit(3).toList());
+    }
+
+    @Test
+    void closestPairsComeInTheOrderSortingAllPairsWouldGive() {
+        final Random random = new Random(8);
+        for (final int range : new int[] {3, 10, 1000}) {
+            final KdTree tree = KdTree.of(randomCloud(random, 120, range));
+            assertEquals(bruteForcePairs(tree), tree.streamClosestPairs().toList(), "pairs with coordinates up to " + range);
+        }
+    }
+
+    @Test
+    void worksOnPositionsToo() {
+        final Random random = new Random(2);
+        final List<Position> positions = IntStream.range(0, 150)
+                .mapToObj(_ -> new Position(random.nextInt(8), random.nextInt(8)))
+                .toList();
+        final KdTree tree = KdTree.of(positions);
+        final Position offset = positions.get(3).getOffsetTo(positions.get(77));
+        assertEquals((long) offset.y() * offset.y() + (long) offset.x() * offset.x(), tree.getSquaredDistance(3, 77));
+        assertEquals(bruteForcePairs(tree), tree.streamClosestPairs().toList());
+        for (int point = 0; point < positions.size(); point++) {
+            assertArrayEquals(bruteForceNeighbours(tree, point, 9), tree.getNearestNeighbours(point, 9));
+        }
+    }
+
+    @Test
+    void tinyTreesHaveNoPairs() {
+        assertEquals(0, KdTree.of(List.of()).streamClosestPairs().count());
+        final KdTree single = KdTree.of(List.of(new Position(1, 2)));
+        assertEquals(0, single.streamClosestPairs().count());
+        assertArrayEquals(new int[0], single.getNearestNeighbours(0, 3));
+    }
+
+    private static ThreeDPointCloud randomCloud(final Random random, final int size, final int range) {
+        return ThreeDPointCloud.of(IntStream.range(0, size)
+                .mapToObj(_ -> new ThreeDPosition(random.nextInt(range), random.nextInt(range), random.nextInt(range)))
+                .toArray(ThreeDPosition[]::new));
+    }
+
+    private static int[] bruteForceNeighbours(final KdTree tree, final int point, final int k) {
+        return IntStream.range(0, tree.size())
+                .filter(other -> other != point)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer other) -> tree.getSquaredDistance(point, other)).thenComparing(other -> other))
+                .limit(k)
+                .mapToInt(other -> other)
+                .toArray();
+    }
+
+    private static List<KdTree.Pair> bruteForcePairs(final KdTree tree) {
+        final List<KdTree.Pair> pairs = new ArrayList<>();
+        for (int first = 0; first < tree.size(); first++) {
+            for (int second = first + 1; second < tree.size(); second++) {
+                pairs.add(new KdTree.Pair(first, second, tree.getSquaredDistance(first, second)));
+            }
+        }
+        pairs.sort(Comparator.comparingLong(KdTree.Pair::squaredDistance)
+                .thenComparingInt(KdTree.Pair::first)
+                .thenComparingInt(KdTree.Pair::second));
+        return pairs;
+    }
+}
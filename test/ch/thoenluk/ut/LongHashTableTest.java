@@ -0,0 +1,123 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The probing, growing and backward shifting all three tables share, poked at through the thinnest of them, LongSet.
+ * <p>
+ * Tests live in their own source root, like the benchmarks, so src stays free of JUnit. Put junit-jupiter on the
+ * classpath, compile src and test with --enable-preview, and hand the test root to the JUnit console launcher. Run them
+ * once more with the vector source root and --add-modules jdk.incubator.vector to cover the vectorised point cloud.
+ */
+class LongHashTableTest {
+    // A fresh table has 16 slots, so the last one is 15 and the wrap-around goes from there to 0.
+    private static final int MASK = 15;
+
+    @Test
+    void zeroKeyIsAKeyLikeAnyOther() {
+        final LongSet set = new LongSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertArrayEquals(new long[] {0}, set.toArray());
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void zeroKeySurvivesGrowing() {
+        final LongSet set = new LongSet();
+        set.add(0);
+        LongStream.rangeClosed(1, 1000).forEach(set::add);
+        assertEquals(1001, set.size());
+        assertTrue(set.contains(0));
+        LongStream.rangeClosed(1, 1000).forEach(key -> assertTrue(set.contains(key), () -> key + " got lost growing"));
+    }
+
+    @Test
+    void removingAcrossTheWrapAroundShiftsBackEverythingBehindIt() {
+        final long[] homedAtTheEnd = keysWithHome(MASK, 3);
+        final long homedAtTheStart = keysWithHome(0, 1)[0];
+        final LongSet set = new LongSet();
+        // The first takes slot 15, the other two spill over into 0 and 1, pushing the one that wanted 0 into 2.
+        for (final long key : homedAtTheEnd) {
+            set.add(key);
+        }
+        set.add(homedAtTheStart);
+        assertEquals(homedAtTheEnd[0], set.keyAt(MASK));
+        assertEquals(homedAtTheEnd[1], set.keyAt(0));
+        assertEquals(homedAtTheStart, set.keyAt(2));
+
+        set.remove(homedAtTheEnd[0]);
+
+        assertFalse(set.contains(homedAtTheEnd[0]));
+        assertTrue(set.contains(homedAtTheEnd[1]));
+        assertTrue(set.contains(homedAtTheEnd[2]));
+        assertTrue(set.contains(homedAtTheStart));
+        assertEquals(homedAtTheEnd[1], set.keyAt(MASK));
+        assertEquals(homedAtTheEnd[2], set.keyAt(0));
+        assertEquals(homedAtTheStart, set.keyAt(1));
+        assertEquals(0, set.keyAt(2));
+    }
+
+    @Test
+    void removingBeforeTheWrapAroundLeavesKeysAtHomeAlone() {
+        final long[] homedAtTheEnd = keysWithHome(MASK, 2);
+        final long homedAtTheStart = keysWithHome(0, 1)[0];
+        final LongSet set = new LongSet();
+        set.add(homedAtTheStart);
+        set.add(homedAtTheEnd[0]);
+        set.add(homedAtTheEnd[1]);
+        assertEquals(homedAtTheEnd[1], set.keyAt(1));
+
+        set.remove(homedAtTheEnd[0]);
+
+        // The one that spilled over moves back to 15, the one that was home at 0 all along stays put.
+        assertEquals(homedAtTheEnd[1], set.keyAt(MASK));
+        assertEquals(homedAtTheStart, set.keyAt(0));
+        assertTrue(set.contains(homedAtTheEnd[1]));
+        assertTrue(set.contains(homedAtTheStart));
+    }
+
+    @Test
+    void behavesLikeAHashSet() {
+        final Random random = new Random(25);
+        final LongSet set = new LongSet();
+        final Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            // Few distinct keys, so there's plenty removing of keys that are there, and 0 and the extremes turn up.
+            final long key = switch (random.nextInt(20)) {
+                case 0 -> 0;
+                case 1 -> Long.MIN_VALUE;
+                case 2 -> Long.MAX_VALUE;
+                default -> random.nextInt(2000) - 1000;
+            };
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key));
+            } else {
+                assertEquals(expected.add(key), set.add(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        assertEquals(expected, set.stream().boxed().collect(Collectors.toSet()));
+    }
+
+    private static long[] keysWithHome(final int home, final int count) {
+        return LongStream.iterate(1, key -> key + 1)
+                .filter(key -> (LongHashTable.mix(key) & MASK) == home)
+                .limit(count)
+                .toArray();
+    }
+}
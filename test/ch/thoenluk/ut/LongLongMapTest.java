@@ -0,0 +1,64 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongMapTest {
+    @Test
+    void zeroKeyKeepsItsValue() {
+        final LongLongMap map = new LongLongMap();
+        assertEquals(-1, map.getOrDefault(0, -1));
+        map.put(0, 42);
+        assertTrue(map.containsKey(0));
+        assertEquals(42, map.getOrDefault(0, -1));
+        assertEquals(50, map.addTo(0, 8));
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.getOrDefault(0, -1));
+    }
+
+    @Test
+    void valuesFollowTheirKeysWhenGrowing() {
+        final LongLongMap map = new LongLongMap();
+        LongStream.range(0, 1000).forEach(key -> map.put(key, -key));
+        assertEquals(1000, map.size());
+        LongStream.range(0, 1000).forEach(key -> assertEquals(-key, map.getOrDefault(key, 1)));
+    }
+
+    @Test
+    void addToStartsFromTheIncrementOnTheGrowingInsert() {
+        final LongLongMap map = new LongLongMap();
+        // 8 keys fill a fresh table to half, so the ninth makes it grow.
+        LongStream.range(1, 9).forEach(key -> map.put(key, key));
+        assertEquals(5, map.addTo(9, 5));
+        assertEquals(5, map.getOrDefault(9, 0));
+        LongStream.range(1, 9).forEach(key -> assertEquals(key, map.getOrDefault(key, 0)));
+    }
+
+    @Test
+    void behavesLikeAHashMap() {
+        final Random random = new Random(14);
+        final LongLongMap map = new LongLongMap();
+        final Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(20) == 0 ? 0 : random.nextInt(2000) - 1000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.remove(key) != null, map.remove(key));
+                case 1 -> assertEquals((long) expected.merge(key, (long) i, Long::sum), map.addTo(key, i));
+                default -> {
+                    expected.put(key, (long) -i);
+                    map.put(key, -i);
+                }
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> assertEquals((long) value, map.getOrDefault(key, Long.MIN_VALUE)));
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), map.values().sum());
+    }
+}
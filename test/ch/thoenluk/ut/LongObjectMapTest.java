@@ -0,0 +1,83 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+    @Test
+    void zeroKeyKeepsItsValue() {
+        final LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.get(0));
+        assertNull(map.put(0, "zero"));
+        assertEquals("zero", map.put(0, "nought"));
+        assertEquals("nought", map.get(0));
+        assertEquals("nought", map.computeIfAbsent(0, _ -> "nil"));
+        assertEquals("nought", map.remove(0));
+        assertNull(map.get(0));
+        assertEquals("nil", map.computeIfAbsent(0, _ -> "nil"));
+    }
+
+    @Test
+    void computeIfAbsentSurvivesTheInsertThatGrowsTheTable() {
+        final LongObjectMap<String> map = new LongObjectMap<>();
+        // 8 keys fill a fresh table to half, so the ninth makes it grow.
+        LongStream.range(1, 9).forEach(key -> map.put(key, Long.toString(key)));
+        assertEquals("9", map.computeIfAbsent(9, Long::toString));
+        assertEquals("9", map.get(9));
+        LongStream.range(1, 10).forEach(key -> assertEquals(Long.toString(key), map.get(key)));
+    }
+
+    @Test
+    void computeIfAbsentMayUseTheMapItself() {
+        final LongObjectMap<Long> fibonacci = new LongObjectMap<>();
+        fibonacci.put(0, 0L);
+        fibonacci.put(1, 1L);
+        assertEquals(12_586_269_025L, fibonacci(fibonacci, 50));
+        assertEquals(51, fibonacci.size());
+    }
+
+    private static long fibonacci(final LongObjectMap<Long> known, final long n) {
+        final Long cached = known.get(n);
+        if (cached != null) {
+            return cached;
+        }
+        return known.computeIfAbsent(n, _ -> fibonacci(known, n - 1) + fibonacci(known, n - 2));
+    }
+
+    @Test
+    void removeLetsGoOfTheValue() {
+        final LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1, "one");
+        map.put(2, "two");
+        assertEquals("one", map.remove(1));
+        assertNull(map.remove(1));
+        assertEquals(1, map.size());
+        assertEquals(Map.of(2L, "two"), map.keys().boxed().collect(Collectors.toMap(key -> key, map::get)));
+    }
+
+    @Test
+    void behavesLikeAHashMap() {
+        final Random random = new Random(14);
+        final LongObjectMap<Integer> map = new LongObjectMap<>();
+        final Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(20) == 0 ? 0 : random.nextInt(2000) - 1000;
+            final int value = i;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.remove(key), map.remove(key));
+                case 1 -> assertEquals(expected.computeIfAbsent(key, _ -> value), map.computeIfAbsent(key, _ -> value));
+                default -> assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertEquals(expected.values().stream().mapToLong(Integer::longValue).sum(), map.values().mapToLong(Integer::longValue).sum());
+    }
+}
@@ -0,0 +1,37 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongSetTest {
+    @Test
+    void ofDropsDuplicates() {
+        final LongSet set = LongSet.of(LongStream.of(3, 0, 3, -7, 0));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(7));
+    }
+
+    @Test
+    void addAllGrowsAsNeeded() {
+        final LongSet small = LongSet.of(LongStream.of(0, 1, 2));
+        final LongSet big = LongSet.of(LongStream.range(-500, 500));
+        small.addAll(big);
+        assertEquals(1000, small.size());
+        LongStream.range(-500, 500).forEach(key -> assertTrue(small.contains(key)));
+    }
+
+    @Test
+    void forEachSeesEveryKeyOnce() {
+        final LongSet set = LongSet.of(LongStream.range(0, 100).map(key -> key * 1_000_003));
+        final LongSet seen = new LongSet();
+        set.forEach(key -> assertTrue(seen.add(key), () -> key + " came up twice"));
+        assertEquals(100, seen.size());
+        assertArrayEquals(LongStream.range(0, 100).map(key -> key * 1_000_003).toArray(), LongStream.of(set.toArray()).sorted().toArray());
+    }
+}
@@ -0,0 +1,93 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreeDPointCloudTest {
+    private static final ThreeDPosition ORIGIN = new ThreeDPosition(0, 0, 0);
+    private static final ThreeDPosition FAR_END = new ThreeDPosition(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    private static final ThreeDPosition OTHER_FAR_END = new ThreeDPosition(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+
+    @Test
+    void distanceIsExactFarBeyondTheCheapCheck() {
+        final ThreeDPointCloud cloud = ThreeDPointCloud.of(ORIGIN, new ThreeDPosition(Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
+        final long expected = 2L * Integer.MAX_VALUE * Integer.MAX_VALUE + 2L * Integer.MAX_VALUE + 1;
+        assertEquals(expected, cloud.getSquaredStraightLineDistance(0, 1));
+        final long[] distances = new long[2];
+        cloud.getSquaredStraightLineDistances(0, 0, 2, distances);
+        assertArrayEquals(new long[] {0, expected}, distances);
+    }
+
+    @Test
+    void distanceThatWouldOverflowThrows() {
+        final ThreeDPointCloud cloud = ThreeDPointCloud.of(OTHER_FAR_END, ORIGIN, FAR_END);
+        assertThrows(AssertionError.class, () -> cloud.getSquaredStraightLineDistance(0, 2));
+        assertThrows(AssertionError.class, () -> cloud.getSquaredStraightLineDistance(2, 0));
+        assertThrows(AssertionError.class, () -> cloud.getSquaredStraightLineDistances(0, 0, 3, new long[3]));
+        assertThrows(AssertionError.class, () -> cloud.getSquaredStraightLineDistances(0, 3, 0, 3, new long[9]));
+        assertThrows(AssertionError.class, () -> KdTree.of(cloud).getSquaredDistance(0, 2));
+    }
+
+    @Test
+    void batchesOfAnyLengthMatchOneAtATime() {
+        // Long enough for whole vectors of any width, and lengths that leave every possible remainder for the tail.
+        final Random random = new Random(24);
+        final ThreeDPointCloud cloud = ThreeDPointCloud.of(IntStream.range(0, 300)
+                .mapToObj(_ -> new ThreeDPosition(random.nextInt(200_000) - 100_000, random.nextInt(200_000) - 100_000, random.nextInt(200_000) - 100_000))
+                .toArray(ThreeDPosition[]::new));
+        for (int from = 0; from < 20; from++) {
+            for (int to = from; to <= cloud.size(); to += 1 + random.nextInt(20)) {
+                final int point = random.nextInt(cloud.size());
+                final long[] distances = new long[to - from];
+                cloud.getSquaredStraightLineDistances(point, from, to, distances);
+                for (int i = from; i < to; i++) {
+                    assertEquals(cloud.getSquaredStraightLineDistance(point, i), distances[i - from]);
+                }
+            }
+        }
+        final long[] block = new long[17 * 45];
+        cloud.getSquaredStraightLineDistances(3, 20, 255, 300, block);
+        for (int row = 3; row < 20; row++) {
+            for (int column = 255; column < 300; column++) {
+                assertEquals(cloud.getSquaredStraightLineDistance(row, column), block[(row - 3) * 45 + column - 255]);
+            }
+        }
+    }
+
+    @Test
+    void overflowDeepInsideABatchThrows() {
+        final ThreeDPosition[] positions = IntStream.range(0, 100).mapToObj(i -> new ThreeDPosition(i, i, i)).toArray(ThreeDPosition[]::new);
+        positions[77] = FAR_END;
+        final ThreeDPointCloud cloud = ThreeDPointCloud.of(positions);
+        cloud.getSquaredStraightLineDistances(0, 1, 77, new long[76]);
+        assertThrows(AssertionError.class, () -> cloud.getSquaredStraightLineDistances(0, 1, 100, new long[99]));
+    }
+
+    @Test
+    void distancesAgreeWithThePositions() {
+        final ThreeDPosition[] positions = {
+                new ThreeDPosition(162, 817, 812),
+                new ThreeDPosition(57, 618, 57),
+                new ThreeDPosition(906, 360, 560),
+                new ThreeDPosition(-592, 479, -940),
+                ORIGIN
+        };
+        final ThreeDPointCloud cloud = ThreeDPointCloud.of(positions);
+        final long[] table = new long[positions.length * positions.length];
+        cloud.getSquaredStraightLineDistances(0, positions.length, 0, positions.length, table);
+        for (int i = 0; i < positions.length; i++) {
+            final long[] row = new long[positions.length];
+            cloud.getSquaredStraightLineDistances(i, 0, positions.length, row);
+            for (int j = 0; j < positions.length; j++) {
+                final long expected = positions[i].getSquaredStraightLineDistanceFrom(positions[j]);
+                assertEquals(expected, cloud.getSquaredStraightLineDistance(i, j));
+                assertEquals(expected, row[j]);
+                assertEquals(expected, table[i * positions.length + j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ch.thoenluk.ut;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The String and the AsciiInput overloads are two ways to read the same input, so they had better read it the same.
+ */
+class UtParsingTest {
+    // Editors love a blank line at the end of a file. Grids don't.
+    private static final String TRAILING_BLANK_LINE = "@.\n.@\n\n";
+
+    @Test
+    void characterGridsIgnoreTrailingBlankLinesEitherWay() {
+        final Grid fromString = UtParsing.multilineStringToCharacterGrid(TRAILING_BLANK_LINE);
+        final Grid fromAscii = UtParsing.multilineStringToCharacterGrid(AsciiInput.of(TRAILING_BLANK_LINE));
+        assertEquals(2, fromString.height());
+        assertEquals("@.\n.@", fromString.toString());
+        assertEquals(fromString.toString(), fromAscii.toString());
+    }
+
+    @Test
+    void digitGridsIgnoreTrailingBlankLinesEitherWay() {
+        final String digits = "12\n34\n\n";
+        final Grid fromString = UtParsing.multilineStringToDigitGrid(digits);
+        final Grid fromAscii = UtParsing.multilineStringToDigitGrid(AsciiInput.of(digits));
+        assertEquals(2, fromString.height());
+        assertEquals(2, fromAscii.height());
+        assertEquals(4, fromAscii.get(1, 1));
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                assertEquals(fromString.get(y, x), fromAscii.get(y, x));
+            }
+        }
+    }
+}
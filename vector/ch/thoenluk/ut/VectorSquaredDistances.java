@@ -0,0 +1,69 @@
+package ch.thoenluk.ut;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ThreeDPointCloud's batch distance loop, spelled out with jdk.incubator.vector instead of hoping the JIT spots it.
+ * Coordinates are loaded as ints, widened to longs lane by lane, and subtracted, squared and summed as whole vectors.
+ * <p>
+ * The Vector API is an incubator module, so this class only compiles and loads with --add-modules jdk.incubator.vector.
+ * That's why it lives in its own source root, and src never mentions it by anything but its name: src compiles without
+ * the flag, and nobody gets the incubator warning unless they ask for the vectors. To ask for them, compile this root
+ * after src with --enable-preview and --add-modules jdk.incubator.vector, put it on the classpath, and start the JVM
+ * with --add-modules jdk.incubator.vector too.
+ * <p>
+ * ThreeDPointCloud looks this class up by name, and only once it knows the module is there. Whatever this doesn't do,
+ * its plain loop does: all of it without this class or the module, and the few points after the last full vector with.
+ */
+final class VectorSquaredDistances {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // Half as wide as the longs, so one load of ints widens into exactly one vector of longs.
+    private static final VectorSpecies<Integer> INTS = LONGS.length() > 1
+            ? VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2))
+            : null;
+
+    private VectorSquaredDistances() {
+    }
+
+    /**
+     * @return Whether the CPU has vectors of more than one long. One lane is a scalar loop with extra steps.
+     */
+    static boolean isWorthIt() {
+        return INTS != null;
+    }
+
+    /**
+     * @return How many of the first points in a range of the given length fill whole vectors, and so are done by fill.
+     */
+    static int loopBound(final int length) {
+        return LONGS.loopBound(length);
+    }
+
+    /**
+     * The squared distances from the point to each point in [from, to), written starting at offset. to - from must be a
+     * multiple of the vector length, see loopBound.
+     * @return Every absolute coordinate difference ORed together, same as the plain loop.
+     */
+    static long fill(final int[] xs, final int[] ys, final int[] zs, final int point, final int from, final int to, final long[] distances, final int offset) {
+        final LongVector x = LongVector.broadcast(LONGS, xs[point]);
+        final LongVector y = LongVector.broadcast(LONGS, ys[point]);
+        final LongVector z = LongVector.broadcast(LONGS, zs[point]);
+        LongVector spread = LongVector.zero(LONGS);
+        for (int i = from; i < to; i += LONGS.length()) {
+            final LongVector dx = widen(xs, i).sub(x);
+            final LongVector dy = widen(ys, i).sub(y);
+            final LongVector dz = widen(zs, i).sub(z);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(distances, offset + i - from);
+            spread = spread.or(dx.abs()).or(dy.abs()).or(dz.abs());
+        }
+        return spread.reduceLanes(VectorOperators.OR);
+    }
+
+    private static LongVector widen(final int[] coordinates, final int i) {
+        return (LongVector) IntVector.fromArray(INTS, coordinates, i).convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+}